@@ -0,0 +1,17 @@
+package com.atm.management.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring Cache names. Caffeine settings come from spring.cache.* in application.properties.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String DASHBOARD_ASSETS = "dashboard-assets";
+    public static final String DASHBOARD_MOVEMENTS = "dashboard-movements";
+    public static final String DASHBOARD_STATS = "dashboard-stats";
+    public static final String VENDOR_STATS = "vendor-stats";
+}
@@ -0,0 +1,21 @@
+package com.atm.management.config;
+
+import com.atm.management.service.mail.LocalSmtpSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Local profile: runs an in-process SMTP sink so mail can be sent and measured without a real mail account.
+ * application-local.properties points spring.mail.* at it.
+ */
+@Configuration
+@Profile("local")
+public class LocalMailConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public LocalSmtpSink localSmtpSink(@Value("${app.mail.sink.port:2525}") int port) {
+        return new LocalSmtpSink(port);
+    }
+}
@@ -1,6 +1,8 @@
 package com.atm.management.config;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -9,6 +11,7 @@ import org.springframework.mail.javamail.JavaMailSenderImpl;
 import java.util.Properties;
 
 @Configuration
+@EnableConfigurationProperties(MailProperties.class)
 public class MailConfig {
 
     /**
@@ -17,17 +20,13 @@ public class MailConfig {
      */
     @Bean
     @ConditionalOnProperty(name = "spring.mail.enabled", havingValue = "true", matchIfMissing = true)
-    public JavaMailSender javaMailSender() {
+    public JavaMailSender javaMailSender(MailProperties mailProperties) {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
 
-        // Default configuration - will be overridden by application.properties
+        // Defaults (Gmail with STARTTLS) - overridden by spring.mail.* in application.properties
         mailSender.setHost("smtp.gmail.com");
         mailSender.setPort(587);
 
-        // Set these in application.properties
-        // mailSender.setUsername("your-email@gmail.com");
-        // mailSender.setPassword("your-app-password");
-
         Properties props = mailSender.getJavaMailProperties();
         props.put("mail.transport.protocol", "smtp");
         props.put("mail.smtp.auth", "true");
@@ -35,6 +34,17 @@ public class MailConfig {
         props.put("mail.smtp.starttls.required", "true");
         props.put("mail.debug", "false");
 
+        if (mailProperties.getHost() != null) {
+            mailSender.setHost(mailProperties.getHost());
+        }
+        if (mailProperties.getPort() != null) {
+            mailSender.setPort(mailProperties.getPort());
+        }
+        mailSender.setUsername(mailProperties.getUsername());
+        mailSender.setPassword(mailProperties.getPassword());
+        mailSender.setDefaultEncoding(mailProperties.getDefaultEncoding().name());
+        props.putAll(mailProperties.getProperties());
+
         return mailSender;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+package com.atm.management.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Splits the connection pool into a primary (writes) and a replica (read-only transactions) pool.
+ * Only active when app.datasource.replica.url is set; otherwise Spring Boot's single
+ * auto-configured DataSource is used unchanged.
+ *
+ * The LazyConnectionDataSourceProxy defers fetching a physical connection until the first statement,
+ * by which point the transaction manager has marked the connection read-only for
+ * {@code @Transactional(readOnly = true)} work, and the proxy hands it to the read-only DataSource instead.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReadReplicaDataSourceConfig {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary-pool");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${app.datasource.replica.url}") String url,
+            @Value("${app.datasource.replica.username:}") String username,
+            @Value("${app.datasource.replica.password:}") String password,
+            @Value("${app.datasource.replica.maximum-pool-size:10}") int maximumPoolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica-pool");
+        dataSource.setJdbcUrl(url);
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setUsername(StringUtils.hasText(username) ? username : properties.determineUsername());
+        dataSource.setPassword(StringUtils.hasText(password) ? password : properties.determinePassword());
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            HikariDataSource replicaDataSource,
+            @Value("${app.datasource.replica.max-lag-seconds:5}") long maxLagSeconds) {
+        return new ReplicaLagMonitor(replicaDataSource, maxLagSeconds);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 HikariDataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        AbstractRoutingDataSource readRouting = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return replicaLagMonitor.isReplicaUsable() ? Target.REPLICA : Target.PRIMARY;
+            }
+        };
+        readRouting.setTargetDataSources(Map.of(
+                Target.PRIMARY, primaryDataSource,
+                Target.REPLICA, replicaDataSource));
+        readRouting.setDefaultTargetDataSource(primaryDataSource);
+        readRouting.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(readRouting);
+
+        log.info("Read/write routing enabled: read-only transactions use replica {} (max lag {}s)",
+                replicaDataSource.getJdbcUrl(), replicaLagMonitor.getMaxLagSeconds());
+        return dataSource;
+    }
+}
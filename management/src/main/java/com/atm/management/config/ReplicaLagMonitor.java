@@ -0,0 +1,68 @@
+package com.atm.management.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Polls the replica's replay lag. Reads are routed back to the primary while the replica
+ * is unreachable or further behind than app.datasource.replica.max-lag-seconds.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // Zero when everything received has been replayed, so an idle primary does not look like lag
+    private static final String LAG_QUERY =
+            "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long maxLagSeconds;
+
+    private volatile boolean replicaUsable = false;
+    private volatile double lastLagSeconds = 0;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagSeconds) {
+        this.jdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:10000}")
+    public void checkLag() {
+        boolean usable;
+        try {
+            Double lag = jdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+            lastLagSeconds = lag != null ? lag : 0;
+            usable = lastLagSeconds <= maxLagSeconds;
+        } catch (Exception e) {
+            log.warn("Replica lag check failed: {}", e.getMessage());
+            usable = false;
+        }
+
+        if (usable != replicaUsable) {
+            if (usable) {
+                log.info("Replica back within lag tolerance ({}s), routing reads to replica", lastLagSeconds);
+            } else {
+                log.warn("Replica lag {}s exceeds {}s or replica unreachable, routing reads to primary",
+                        lastLagSeconds, maxLagSeconds);
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public double getLastLagSeconds() {
+        return lastLagSeconds;
+    }
+
+    public long getMaxLagSeconds() {
+        return maxLagSeconds;
+    }
+}
@@ -0,0 +1,36 @@
+package com.atm.management.controller;
+
+import com.atm.management.service.CacheStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class CacheController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    /**
+     * Second-level cache hit ratios per region
+     * GET /api/cache/stats
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getSecondLevelCacheStatistics());
+    }
+
+    /**
+     * Reset cache statistics counters
+     * POST /api/cache/stats/reset
+     */
+    @PostMapping("/stats/reset")
+    public ResponseEntity<Map<String, String>> resetCacheStatistics() {
+        cacheStatisticsService.resetStatistics();
+        return ResponseEntity.ok(Map.of("message", "Cache statistics reset"));
+    }
+}
@@ -1,12 +1,22 @@
 package com.atm.management.controller;
 
 import com.atm.management.dto.response.DashboardResponse;
+import com.atm.management.service.AssetAgeingService;
+import com.atm.management.service.DashboardPushService;
 import com.atm.management.service.DashboardService;
+import com.atm.management.service.DashboardSnapshotService;
+import com.atm.management.service.DashboardSnapshotService.Widget;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/dashboard")
@@ -15,6 +25,9 @@ import java.util.Map;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardSnapshotService dashboardSnapshotService;
+    private final AssetAgeingService assetAgeingService;
+    private final DashboardPushService dashboardPushService;
 
     /**
      * Get complete dashboard data
@@ -22,17 +35,43 @@ public class DashboardController {
      */
     @GetMapping
     public ResponseEntity<DashboardResponse> getDashboard() {
-        DashboardResponse dashboard = dashboardService.getDashboardData();
+        DashboardResponse dashboard = dashboardSnapshotService.getDashboard();
         return ResponseEntity.ok(dashboard);
     }
 
+    /**
+     * Get several dashboard widgets in one response, with a strong ETag (304 when unchanged)
+     * GET /api/dashboard/widgets?include=kpis,turnover,distribution,vendor-allocation,alerts,location-distribution
+     */
+    @GetMapping("/widgets")
+    public ResponseEntity<Map<String, Object>> getWidgets(
+            @RequestParam(required = false) List<String> include,
+            WebRequest request) {
+        Set<Widget> widgets = dashboardSnapshotService.parseWidgets(include);
+        String etag = dashboardSnapshotService.getWidgetsETag(widgets);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        Map<String, Object> data = dashboardSnapshotService.getWidgets(widgets);
+        return ResponseEntity.ok().eTag(etag).body(data);
+    }
+
+    /**
+     * Subscribe to live dashboard updates (Server-Sent Events: "kpis" deltas and "widgets" to refetch)
+     * GET /api/dashboard/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUpdates() {
+        return dashboardPushService.subscribe();
+    }
+
     /**
      * Get dashboard KPIs only
      * GET /api/dashboard/kpis
      */
     @GetMapping("/kpis")
     public ResponseEntity<Map<String, Object>> getKPIs() {
-        Map<String, Object> kpis = dashboardService.getKPIs();
+        Map<String, Object> kpis = dashboardSnapshotService.getKPIs();
         return ResponseEntity.ok(kpis);
     }
 
@@ -42,7 +81,7 @@ public class DashboardController {
      */
     @GetMapping("/charts/turnover")
     public ResponseEntity<Map<String, Object>> getAssetTurnoverData() {
-        Map<String, Object> data = dashboardService.getAssetTurnoverData();
+        Map<String, Object> data = dashboardSnapshotService.getAssetTurnoverData();
         return ResponseEntity.ok(data);
     }
 
@@ -52,7 +91,7 @@ public class DashboardController {
      */
     @GetMapping("/charts/distribution")
     public ResponseEntity<Map<String, Object>> getAssetDistributionData() {
-        Map<String, Object> data = dashboardService.getAssetDistributionData();
+        Map<String, Object> data = dashboardSnapshotService.getAssetDistributionData();
         return ResponseEntity.ok(data);
     }
 
@@ -62,7 +101,7 @@ public class DashboardController {
      */
     @GetMapping("/charts/vendor-allocation")
     public ResponseEntity<Map<String, Object>> getVendorAllocationData() {
-        Map<String, Object> data = dashboardService.getVendorAllocationData();
+        Map<String, Object> data = dashboardSnapshotService.getVendorAllocationData();
         return ResponseEntity.ok(data);
     }
 
@@ -72,7 +111,7 @@ public class DashboardController {
      */
     @GetMapping("/charts/risk-trend")
     public ResponseEntity<Map<String, Object>> getRiskTrendData() {
-        Map<String, Object> data = dashboardService.getRiskTrendData();
+        Map<String, Object> data = dashboardSnapshotService.getRiskTrendData();
         return ResponseEntity.ok(data);
     }
 
@@ -83,7 +122,7 @@ public class DashboardController {
     @GetMapping("/recent-movements")
     public ResponseEntity<Map<String, Object>> getRecentMovements(
             @RequestParam(defaultValue = "5") int limit) {
-        Map<String, Object> movements = dashboardService.getRecentMovements(limit);
+        Map<String, Object> movements = dashboardSnapshotService.getRecentMovements(limit);
         return ResponseEntity.ok(movements);
     }
 
@@ -93,7 +132,7 @@ public class DashboardController {
      */
     @GetMapping("/alerts")
     public ResponseEntity<Map<String, Object>> getSystemAlerts() {
-        Map<String, Object> alerts = dashboardService.getSystemAlerts();
+        Map<String, Object> alerts = dashboardSnapshotService.getSystemAlerts();
         return ResponseEntity.ok(alerts);
     }
 
@@ -103,20 +142,45 @@ public class DashboardController {
      */
     @GetMapping("/atm-status")
     public ResponseEntity<Map<String, Object>> getAtmStatusSummary() {
-        Map<String, Object> summary = dashboardService.getAtmStatusSummary();
+        Map<String, Object> summary = dashboardSnapshotService.getAtmStatusSummary();
         return ResponseEntity.ok(summary);
     }
 
     /**
-     * Get location-wise ATM distribution
+     * Get location-wise ATM distribution, optionally paged by descending ATM count
      * GET /api/dashboard/location-distribution
+     * GET /api/dashboard/location-distribution?page=0&size=10
      */
     @GetMapping("/location-distribution")
-    public ResponseEntity<Map<String, Object>> getLocationDistribution() {
-        Map<String, Object> distribution = dashboardService.getLocationDistribution();
+    public ResponseEntity<Map<String, Object>> getLocationDistribution(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        Map<String, Object> distribution = (page == null && size == null)
+                ? dashboardSnapshotService.getLocationDistribution()
+                : dashboardService.getLocationDistribution(page != null ? page : 0, size != null ? size : 10);
         return ResponseEntity.ok(distribution);
     }
 
+    /**
+     * Get average asset ageing, ageing buckets and per-vendor averages
+     * GET /api/dashboard/ageing
+     */
+    @GetMapping("/ageing")
+    public ResponseEntity<Map<String, Object>> getAgeingSummary() {
+        Map<String, Object> ageing = assetAgeingService.getAgeingSummary();
+        return ResponseEntity.ok(ageing);
+    }
+
+    /**
+     * Get amount pending receipt (final amount vs. amount received), per vendor and per billing month
+     * GET /api/dashboard/receivables
+     */
+    @GetMapping("/receivables")
+    public ResponseEntity<Map<String, Object>> getReceivables() {
+        Map<String, Object> receivables = dashboardService.getReceivables();
+        return ResponseEntity.ok(receivables);
+    }
+
     /**
      * Get monthly statistics
      * GET /api/dashboard/monthly-stats
@@ -140,12 +204,22 @@ public class DashboardController {
     }
 
     /**
-     * Refresh dashboard data
+     * Snapshot build time per section and sections awaiting rebuild
+     * GET /api/dashboard/snapshot
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<Map<String, Object>> getSnapshotInfo() {
+        Map<String, Object> info = dashboardSnapshotService.getSnapshotInfo();
+        return ResponseEntity.ok(info);
+    }
+
+    /**
+     * Rebuild the dashboard snapshot and return it
      * POST /api/dashboard/refresh
      */
     @PostMapping("/refresh")
     public ResponseEntity<DashboardResponse> refreshDashboard() {
-        DashboardResponse dashboard = dashboardService.getDashboardData();
+        DashboardResponse dashboard = dashboardSnapshotService.refresh();
         return ResponseEntity.ok(dashboard);
     }
 }
\ No newline at end of file
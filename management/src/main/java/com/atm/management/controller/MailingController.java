@@ -1,6 +1,7 @@
 package com.atm.management.controller;
 
 import com.atm.management.dto.request.EmailRequest;
+import com.atm.management.dto.request.TemplateEmailRequest;
 import com.atm.management.dto.response.VendorDataResponse;
 import com.atm.management.dto.response.VendorResponse;
 import com.atm.management.model.UploadedFile;
@@ -165,7 +166,7 @@ public class MailingController {
     }
 
     /**
-     * Send emails to validated recipients
+     * Queue emails to validated recipients; the result carries the batch id to poll
      * POST /api/mailing/send
      */
     @PostMapping("/send")
@@ -177,6 +178,48 @@ public class MailingController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Send one digest email per vendor from an uploaded sheet, optionally with the vendor's rows as XLSX
+     * POST /api/mailing/send-excel
+     */
+    @PostMapping(value = "/send-excel", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> sendExcelDigests(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String subject,
+            @RequestParam(required = false) String body,
+            @RequestParam(defaultValue = "true") boolean attachRows) {
+
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Please select a file to upload");
+        }
+        Object serviceResult = mailingService.sendBulkEmailsFromExcel(file, subject, body, attachRows);
+        Map<String, Object> result = new HashMap<>();
+        result.put("result", serviceResult);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Render a mail template per recipient (with optional ATM/vendor data) and queue the batch
+     * POST /api/mailing/send-template
+     */
+    @PostMapping("/send-template")
+    public ResponseEntity<Map<String, Object>> sendTemplatedEmails(@Valid @RequestBody TemplateEmailRequest request) {
+        Object serviceResult = mailingService.sendTemplatedEmails(request.getTemplate(), request.getRecipients());
+        Map<String, Object> result = new HashMap<>();
+        result.put("result", serviceResult);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Get delivery status of a queued email batch
+     * GET /api/mailing/batches/{batchId}
+     */
+    @GetMapping("/batches/{batchId}")
+    public ResponseEntity<Map<String, Object>> getBatchStatus(@PathVariable UUID batchId) {
+        Map<String, Object> status = mailingService.getBatchStatus(batchId);
+        return ResponseEntity.ok(status);
+    }
+
     /**
      * Send single email
      * POST /api/mailing/send-single
@@ -219,6 +262,18 @@ public class MailingController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Recompile mail templates after they were changed
+     * POST /api/mailing/templates/reload
+     */
+    @PostMapping("/templates/reload")
+    public ResponseEntity<Map<String, Object>> reloadEmailTemplates() {
+        int loaded = mailingService.reloadEmailTemplates();
+        Map<String, Object> response = new HashMap<>();
+        response.put("loaded", loaded);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Send asset movement notification
      * POST /api/mailing/notify/movement
@@ -272,27 +327,29 @@ public class MailingController {
     }
 
     /**
-     * Get email sending history
-     * GET /api/mailing/history
+     * Get email sending history, newest first; pass nextCursor back as before for the next page
+     * GET /api/mailing/history?before=&recipient=&size=
      */
     @GetMapping("/history")
     public ResponseEntity<Map<String, Object>> getEmailHistory(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) String recipient,
             @RequestParam(defaultValue = "20") int size) {
 
-        Object history = mailingService.getEmailHistory(page, size);
+        Map<String, Object> history = mailingService.getEmailHistory(before, recipient, size);
         Map<String, Object> response = new HashMap<>();
-        response.put("history", history);
+        response.put("history", history.get("items"));
+        response.put("nextCursor", history.get("nextCursor"));
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Get email statistics
-     * GET /api/mailing/stats
+     * Get email statistics (sent/failed/retried per day and per template)
+     * GET /api/mailing/stats?days=30
      */
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getEmailStats() {
-        Object stats = mailingService.getEmailStatistics();
+    public ResponseEntity<Map<String, Object>> getEmailStats(@RequestParam(defaultValue = "30") int days) {
+        Object stats = mailingService.getEmailStatistics(days);
         Map<String, Object> response = new HashMap<>();
         response.put("stats", stats);
         return ResponseEntity.ok(response);
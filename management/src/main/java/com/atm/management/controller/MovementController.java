@@ -2,6 +2,7 @@ package com.atm.management.controller;
 
 import com.atm.management.dto.request.MovementRequest;
 import com.atm.management.dto.response.MovementResponse;
+import com.atm.management.service.MovementPartitionService;
 import com.atm.management.service.MovementService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +21,7 @@ import java.util.Map;
 public class MovementController {
 
     private final MovementService movementService;
+    private final MovementPartitionService movementPartitionService;
 
     @GetMapping
     public ResponseEntity<List<MovementResponse>> getAllMovements() {
@@ -99,4 +101,22 @@ public class MovementController {
         Map<String, Object> stats = movementService.getMovementStatistics();
         return ResponseEntity.ok(stats);
     }
-}
\ No newline at end of file
+
+    /**
+     * List monthly partitions of the movements table
+     * GET /api/movements/partitions
+     */
+    @GetMapping("/partitions")
+    public ResponseEntity<List<Map<String, Object>>> getPartitions() {
+        return ResponseEntity.ok(movementPartitionService.getPartitions());
+    }
+
+    /**
+     * Detach a past month's partition for archiving
+     * POST /api/movements/partitions/2025-01/detach
+     */
+    @PostMapping("/partitions/{month}/detach")
+    public ResponseEntity<Map<String, Object>> detachPartition(@PathVariable String month) {
+        return ResponseEntity.ok(movementPartitionService.detachPartition(month));
+    }
+}
@@ -0,0 +1,31 @@
+package com.atm.management.controller;
+
+import com.atm.management.dto.response.SearchResultResponse;
+import com.atm.management.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    /**
+     * Ranked search across ATMs, movements, vendors and notices
+     * GET /api/search?q=TRK-4F2A&types=ATM,MOVEMENT&limit=20
+     */
+    @GetMapping
+    public ResponseEntity<List<SearchResultResponse>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(required = false) Integer limit) {
+        List<SearchResultResponse> results = searchService.search(q, types, limit);
+        return ResponseEntity.ok(results);
+    }
+}
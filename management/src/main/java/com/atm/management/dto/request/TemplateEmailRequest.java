@@ -0,0 +1,40 @@
+package com.atm.management.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TemplateEmailRequest {
+
+    @NotBlank(message = "Template is required")
+    private String template;
+
+    @NotEmpty(message = "At least one recipient is required")
+    @Valid
+    private List<Recipient> recipients;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Recipient {
+        @NotBlank(message = "Email is required")
+        @Email(message = "Invalid email format")
+        private String email;
+
+        private String name; // Optional
+
+        private Long atmId; // Optional - fills the ATM and vendor variables
+
+        private Map<String, String> variables; // Optional - overrides any other value
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -20,4 +21,5 @@ public class DashboardResponse {
     private List<ChartData> riskTrend;
     private List<MovementResponse> recentMovements;
     private Map<String, Object> alerts;
+    private LocalDateTime snapshotBuiltAt;
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.atm.management.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultResponse {
+    private ResultType type;
+    private Long id;
+    private String title;
+    private String subtitle;
+    private Double rank;
+
+    public enum ResultType {
+        ATM,
+        MOVEMENT,
+        VENDOR,
+        NOTICE
+    }
+}
@@ -25,4 +25,5 @@ public class VendorResponse {
     private LocalDate joinedDate;
     private String contactPerson;
     private LocalDateTime createdAt;
+    private Double averageAgeingDays;
 }
\ No newline at end of file
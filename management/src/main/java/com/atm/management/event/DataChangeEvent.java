@@ -0,0 +1,41 @@
+package com.atm.management.event;
+
+import lombok.Getter;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Published by the write services after ATMs, movements, costings or vendors change,
+ * and by AssetRollupService after it records a new rollup.
+ * Listeners use {@code @TransactionalEventListener} so they only react once the change has committed.
+ */
+@Getter
+public class DataChangeEvent {
+
+    private final Set<Domain> domains;
+
+    private DataChangeEvent(Set<Domain> domains) {
+        this.domains = domains;
+    }
+
+    public static DataChangeEvent of(Domain first, Domain... rest) {
+        return new DataChangeEvent(EnumSet.of(first, rest));
+    }
+
+    public static DataChangeEvent all() {
+        return new DataChangeEvent(EnumSet.allOf(Domain.class));
+    }
+
+    public boolean affects(Domain domain) {
+        return domains.contains(domain);
+    }
+
+    public enum Domain {
+        ATMS,
+        MOVEMENTS,
+        COSTINGS,
+        VENDORS,
+        ROLLUPS
+    }
+}
@@ -35,6 +35,9 @@ public class Atm {
     @Column(nullable = false)
     private String location;
 
+    // Derived from location on every write; see deriveCity()
+    private String city;
+
     private String branch;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -80,6 +83,10 @@ public class Atm {
     @Column(name = "amount_received")
     private String amountReceived;
 
+    // Derived from amountReceived and finalAmount on every write; see deriveAmountReceivedValue()
+    @Column(name = "amount_received_value", precision = 15, scale = 2)
+    private BigDecimal amountReceivedValue;
+
     @Column(name = "notice_generated", nullable = false)
     private Boolean noticeGenerated = false;
 
@@ -117,10 +124,46 @@ public class Atm {
         if (noticeGenerated == null) {
             noticeGenerated = false;
         }
+        city = deriveCity(location);
+        amountReceivedValue = deriveAmountReceivedValue(amountReceived, finalAmount);
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        city = deriveCity(location);
+        amountReceivedValue = deriveAmountReceivedValue(amountReceived, finalAmount);
+    }
+
+    /**
+     * City is the last comma-separated part of the location ("Shop 5, Bhandup West, Mumbai" -> "Mumbai").
+     * Must stay in line with the backfill in V10__Add_city_to_atms.sql.
+     */
+    static String deriveCity(String location) {
+        if (location == null) {
+            return null;
+        }
+        String city = location.substring(location.lastIndexOf(',') + 1).trim();
+        return city.isEmpty() ? null : city;
+    }
+
+    /**
+     * Amount received as a number: "Not received" -> 0, "Received" -> the final amount,
+     * a plain amount ("12,500.00") -> that amount, anything else -> null (not recorded).
+     * Must stay in line with the backfill in V14__Add_receivables_totals.sql.
+     */
+    static BigDecimal deriveAmountReceivedValue(String amountReceived, BigDecimal finalAmount) {
+        if (amountReceived == null || amountReceived.isBlank()) {
+            return null;
+        }
+        String text = amountReceived.trim().toLowerCase();
+        if (text.contains("not")) {
+            return BigDecimal.ZERO;
+        }
+        if (text.startsWith("received")) {
+            return finalAmount;
+        }
+        String digits = text.replaceAll("[^0-9.-]", "");
+        return digits.matches("-?\\d+(\\.\\d+)?") ? new BigDecimal(digits) : null;
     }
-}
\ No newline at end of file
+}
@@ -16,16 +16,19 @@ import java.util.UUID;
 @AllArgsConstructor
 public class Movement {
 
+    // The table's primary key is (id, initiated_date) since it is partitioned by month, so the database does not
+    // enforce id uniqueness on its own; ids are unique because they only ever come from movements_id_seq
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Foreign keys on the partitioned table are created by V7__Partition_movements_by_month.sql
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "atm_id", nullable = false)
+    @JoinColumn(name = "atm_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Atm atm;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "uploaded_file_id")
+    @JoinColumn(name = "uploaded_file_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private UploadedFile uploadedFile;
 
     @Column(nullable = false)
@@ -60,7 +63,7 @@ public class Movement {
 
     private LocalDate actualDelivery;
 
-    @Column(unique = true)
+    // Unique together with initiated_date (partition key), enforced by uk_movements_tracking_number
     private String trackingNumber;
 
     @Column(length = 1000)
@@ -0,0 +1,25 @@
+package com.atm.management.repository;
+
+import lombok.Value;
+
+/**
+ * A row of asset_ageing_totals: running ageing sums over all assets (vendorId 0) or one vendor's assets.
+ */
+@Value
+public class AgeingTotals {
+    long vendorId;
+    String vendorName;
+    long assetCount;
+    long totalDays;
+    long bucket0To30;
+    long bucket31To60;
+    long bucket61To90;
+    long bucketOver90;
+
+    /**
+     * Average ageing in days rounded to one decimal, or null when no asset has a pickup date.
+     */
+    public Double getAverageDays() {
+        return assetCount > 0 ? Math.round(totalDays * 10.0 / assetCount) / 10.0 : null;
+    }
+}
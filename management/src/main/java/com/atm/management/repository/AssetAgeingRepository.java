@@ -0,0 +1,66 @@
+package com.atm.management.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and nightly maintenance for asset_ageing / asset_ageing_totals (see V13__Create_asset_ageing.sql).
+ * Writes to atms keep both tables current through triggers, so nothing here runs on the ATM write path.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AssetAgeingRepository {
+
+    public static final long ALL_VENDORS = 0L;
+
+    private static final String TOTALS_SELECT =
+            "SELECT t.vendor_id, v.name AS vendor_name, t.asset_count, t.total_days, " +
+            "t.bucket_0_30, t.bucket_31_60, t.bucket_61_90, t.bucket_over_90 " +
+            "FROM asset_ageing_totals t LEFT JOIN vendors v ON v.id = t.vendor_id ";
+
+    private static final RowMapper<AgeingTotals> TOTALS_ROW_MAPPER = (rs, rowNum) -> new AgeingTotals(
+            rs.getLong("vendor_id"),
+            rs.getString("vendor_name"),
+            rs.getLong("asset_count"),
+            rs.getLong("total_days"),
+            rs.getLong("bucket_0_30"),
+            rs.getLong("bucket_31_60"),
+            rs.getLong("bucket_61_90"),
+            rs.getLong("bucket_over_90"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Re-age every undelivered asset to today. Only rows whose day count changed are written.
+     * @return number of assets re-aged
+     */
+    public int reageOpenAssets() {
+        return jdbcTemplate.update(
+                "UPDATE asset_ageing g SET ageing_days = d.days, bucket = ageing_bucket(d.days), " +
+                "computed_on = CURRENT_DATE " +
+                "FROM (SELECT a.id, GREATEST(0, CURRENT_DATE - a.pickup_date) AS days " +
+                "      FROM asset_ageing o JOIN atms a ON a.id = o.atm_id WHERE NOT o.delivered) d " +
+                "WHERE g.atm_id = d.id AND g.ageing_days <> d.days");
+    }
+
+    public Optional<AgeingTotals> findTotals(long vendorId) {
+        return jdbcTemplate.query(TOTALS_SELECT + "WHERE t.vendor_id = ?", TOTALS_ROW_MAPPER, vendorId)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Per-vendor totals for vendors that currently have aged assets, highest average first.
+     */
+    public List<AgeingTotals> findVendorTotals() {
+        return jdbcTemplate.query(TOTALS_SELECT +
+                "WHERE t.vendor_id <> 0 AND t.asset_count > 0 " +
+                "ORDER BY t.total_days::numeric / t.asset_count DESC, t.vendor_id",
+                TOTALS_ROW_MAPPER);
+    }
+}
@@ -0,0 +1,149 @@
+package com.atm.management.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Daily and monthly aggregate rows (see V12__Create_asset_rollups.sql).
+ * Every write is a single INSERT ... SELECT, so the aggregation runs inside the database.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AssetRollupRepository {
+
+    private static final String MONTHLY_SELECT =
+            "SELECT m.month, m.last_rollup_date, d.total_assets, d.idle_assets, d.maintenance_assets, " +
+            "d.total_vendors, d.total_movements, d.pending_movements, d.in_transit_movements, " +
+            "d.delivered_movements, d.cancelled_movements, m.movements_initiated, m.turnover_rate, m.risk_rate " +
+            "FROM asset_monthly_rollups m JOIN asset_daily_rollups d ON d.rollup_date = m.last_rollup_date ";
+
+    private static final RowMapper<MonthlyAssetRollup> MONTHLY_ROW_MAPPER = (rs, rowNum) -> new MonthlyAssetRollup(
+            rs.getObject("month", LocalDate.class),
+            rs.getObject("last_rollup_date", LocalDate.class),
+            rs.getLong("total_assets"),
+            rs.getLong("idle_assets"),
+            rs.getLong("maintenance_assets"),
+            rs.getLong("total_vendors"),
+            rs.getLong("total_movements"),
+            rs.getLong("pending_movements"),
+            rs.getLong("in_transit_movements"),
+            rs.getLong("delivered_movements"),
+            rs.getLong("cancelled_movements"),
+            rs.getLong("movements_initiated"),
+            rs.getBigDecimal("turnover_rate"),
+            rs.getBigDecimal("risk_rate"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Record (or overwrite) the rollup for a day from the current contents of atms, vendors and movements.
+     * An asset matching both keyword lists counts as under maintenance, not idle.
+     * @param idlePatterns lower-case LIKE patterns matched against asset_status, e.g. %idle%
+     * @param maintenancePatterns lower-case LIKE patterns matched against asset_status, e.g. %repair%
+     */
+    public void upsertDailyRollup(LocalDate day, String[] idlePatterns, String[] maintenancePatterns) {
+        jdbcTemplate.update(
+                "INSERT INTO asset_daily_rollups (rollup_date, total_assets, idle_assets, maintenance_assets, " +
+                "total_vendors, total_movements, pending_movements, in_transit_movements, delivered_movements, " +
+                "cancelled_movements, movements_initiated, computed_at) " +
+                "SELECT ?, a.total, a.idle, a.maintenance, (SELECT count(*) FROM vendors), " +
+                "m.total, m.pending, m.in_transit, m.delivered, m.cancelled, m.initiated, now() " +
+                "FROM (SELECT count(*) AS total, " +
+                "      count(*) FILTER (WHERE lower(asset_status) LIKE ANY (?::text[]) " +
+                "                         AND NOT lower(asset_status) LIKE ANY (?::text[])) AS idle, " +
+                "      count(*) FILTER (WHERE lower(asset_status) LIKE ANY (?::text[])) AS maintenance " +
+                "      FROM atms) a, " +
+                "     (SELECT count(*) AS total, " +
+                "      count(*) FILTER (WHERE status = 'PENDING') AS pending, " +
+                "      count(*) FILTER (WHERE status = 'IN_TRANSIT') AS in_transit, " +
+                "      count(*) FILTER (WHERE status = 'DELIVERED') AS delivered, " +
+                "      count(*) FILTER (WHERE status = 'CANCELLED') AS cancelled, " +
+                "      count(*) FILTER (WHERE initiated_date = ?) AS initiated " +
+                "      FROM movements) m " +
+                "ON CONFLICT (rollup_date) DO UPDATE SET " +
+                "total_assets = EXCLUDED.total_assets, idle_assets = EXCLUDED.idle_assets, " +
+                "maintenance_assets = EXCLUDED.maintenance_assets, total_vendors = EXCLUDED.total_vendors, " +
+                "total_movements = EXCLUDED.total_movements, pending_movements = EXCLUDED.pending_movements, " +
+                "in_transit_movements = EXCLUDED.in_transit_movements, " +
+                "delivered_movements = EXCLUDED.delivered_movements, " +
+                "cancelled_movements = EXCLUDED.cancelled_movements, " +
+                "movements_initiated = EXCLUDED.movements_initiated, computed_at = EXCLUDED.computed_at",
+                day, idlePatterns, maintenancePatterns, maintenancePatterns, day);
+    }
+
+    /**
+     * Replace the per-status asset counts for a day. ATMs without an asset status are not counted.
+     */
+    public void replaceStatusCounts(LocalDate day) {
+        jdbcTemplate.update("DELETE FROM asset_status_daily_counts WHERE rollup_date = ?", day);
+        jdbcTemplate.update(
+                "INSERT INTO asset_status_daily_counts (rollup_date, asset_status, total) " +
+                "SELECT ?, asset_status, count(*) FROM atms " +
+                "WHERE asset_status IS NOT NULL AND trim(asset_status) <> '' " +
+                "GROUP BY asset_status",
+                day);
+    }
+
+    /**
+     * Point the month containing {@code day} at that day's rollup and recompute its rates.
+     * Turnover = movements initiated in the month / total assets; risk = (idle + maintenance) / total assets,
+     * both as percentages. The movement count reads only that month's partition.
+     */
+    public void upsertMonthlyRollup(LocalDate day) {
+        LocalDate monthStart = day.withDayOfMonth(1);
+        jdbcTemplate.update(
+                "INSERT INTO asset_monthly_rollups (month, last_rollup_date, movements_initiated, " +
+                "turnover_rate, risk_rate, computed_at) " +
+                "SELECT ?, d.rollup_date, mi.initiated, " +
+                "CASE WHEN d.total_assets > 0 THEN round(mi.initiated * 100.0 / d.total_assets, 2) ELSE 0 END, " +
+                "CASE WHEN d.total_assets > 0 " +
+                "     THEN round((d.idle_assets + d.maintenance_assets) * 100.0 / d.total_assets, 2) ELSE 0 END, " +
+                "now() " +
+                "FROM asset_daily_rollups d, " +
+                "     (SELECT count(*) AS initiated FROM movements " +
+                "      WHERE initiated_date >= ? AND initiated_date < ?) mi " +
+                "WHERE d.rollup_date = ? " +
+                "ON CONFLICT (month) DO UPDATE SET " +
+                "last_rollup_date = EXCLUDED.last_rollup_date, movements_initiated = EXCLUDED.movements_initiated, " +
+                "turnover_rate = EXCLUDED.turnover_rate, risk_rate = EXCLUDED.risk_rate, " +
+                "computed_at = EXCLUDED.computed_at " +
+                "WHERE asset_monthly_rollups.last_rollup_date <= EXCLUDED.last_rollup_date",
+                monthStart, monthStart, monthStart.plusMonths(1), day);
+    }
+
+    /**
+     * Monthly rollups with {@code fromMonth <= month <= toMonth}, oldest first. Both bounds are first-of-month dates.
+     */
+    public List<MonthlyAssetRollup> findMonthlyRollups(LocalDate fromMonth, LocalDate toMonth) {
+        return jdbcTemplate.query(MONTHLY_SELECT + "WHERE m.month BETWEEN ? AND ? ORDER BY m.month",
+                MONTHLY_ROW_MAPPER, fromMonth, toMonth);
+    }
+
+    public Optional<MonthlyAssetRollup> findMonthlyRollup(LocalDate month) {
+        return jdbcTemplate.query(MONTHLY_SELECT + "WHERE m.month = ?", MONTHLY_ROW_MAPPER, month)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Asset status -> count recorded for a day, ordered by status.
+     */
+    public Map<String, Long> findStatusCounts(LocalDate day) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT asset_status, total FROM asset_status_daily_counts WHERE rollup_date = ? ORDER BY asset_status",
+                rs -> {
+                    counts.put(rs.getString("asset_status"), rs.getLong("total"));
+                },
+                day);
+        return counts;
+    }
+}
@@ -1,11 +1,15 @@
 package com.atm.management.repository;
 
 import com.atm.management.model.Atm;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,11 +20,24 @@ public interface AtmRepository extends JpaRepository<Atm, Long> {
     List<Atm> findByLocation(String location);
     List<Atm> findByVendorId(Long vendorId);
     long countByVendorId(Long vendorId);
-    long countByAssetStatus(String assetStatus);
+    long countByNextMaintenanceDateBefore(LocalDate date);
     List<Atm> findByAssetStatus(String assetStatus);
 
-    @Query("SELECT DISTINCT a.assetStatus FROM Atm a")
-    List<String> findDistinctAssetStatuses();
+    @Query("SELECT a.assetStatus AS status, COUNT(a) AS total FROM Atm a GROUP BY a.assetStatus ORDER BY a.assetStatus")
+    List<StatusCount> countGroupedByAssetStatus();
+
+    @Query("SELECT a.city AS city, COUNT(a) AS total FROM Atm a WHERE a.city IS NOT NULL GROUP BY a.city ORDER BY COUNT(a) DESC, a.city")
+    List<CityCount> countGroupedByCity();
+
+    @Query(value = "SELECT a.city AS city, COUNT(a) AS total FROM Atm a WHERE a.city IS NOT NULL GROUP BY a.city ORDER BY COUNT(a) DESC, a.city",
+            countQuery = "SELECT COUNT(DISTINCT a.city) FROM Atm a WHERE a.city IS NOT NULL")
+    Page<CityCount> countGroupedByCity(Pageable pageable);
+
+    @Query("SELECT v.id AS vendorId, v.name AS name, COUNT(a) AS total FROM Atm a JOIN a.vendor v GROUP BY v.id, v.name ORDER BY COUNT(a) DESC, v.id")
+    List<VendorCount> countGroupedByVendor(Pageable pageable);
+
+    @Query("SELECT a FROM Atm a LEFT JOIN FETCH a.vendor WHERE a.id IN ?1")
+    List<Atm> findAllWithVendorByIdIn(Collection<Long> ids);
 
     @Query("SELECT a FROM Atm a WHERE a.name LIKE %?1% OR a.serialNumber LIKE %?1%")
     List<Atm> searchByNameOrSerial(String keyword);
@@ -0,0 +1,9 @@
+package com.atm.management.repository;
+
+/**
+ * Projection for grouped "city -> ATM count" queries.
+ */
+public interface CityCount {
+    String getCity();
+    Long getTotal();
+}
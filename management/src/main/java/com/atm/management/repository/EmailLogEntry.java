@@ -0,0 +1,19 @@
+package com.atm.management.repository;
+
+import lombok.Value;
+
+/**
+ * The outcome of one delivery attempt, appended to email_log.
+ */
+@Value
+public class EmailLogEntry {
+    OutboxMessage message;
+    Status status;
+    String error;
+
+    public enum Status {
+        SENT,
+        RETRY,
+        FAILED
+    }
+}
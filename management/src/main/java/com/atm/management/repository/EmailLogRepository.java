@@ -0,0 +1,118 @@
+package com.atm.management.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The email_log and email_stats_daily tables (see V18__Create_email_log.sql).
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmailLogRepository {
+
+    private static final int BATCH_INSERT_SIZE = 500;
+    private static final String NO_TEMPLATE = "";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Append the entries and add them to today's counts, in one transaction so the two never disagree.
+     */
+    @Transactional
+    public void record(List<EmailLogEntry> entries) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO email_log (outbox_id, batch_id, recipient, subject, template, status, attempt, error, logged_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, now())",
+                entries, BATCH_INSERT_SIZE, (ps, entry) -> {
+                    OutboxMessage message = entry.getMessage();
+                    ps.setLong(1, message.getId());
+                    ps.setObject(2, message.getBatchId());
+                    ps.setString(3, message.getRecipient());
+                    ps.setString(4, message.getSubject());
+                    ps.setString(5, message.getTemplate());
+                    ps.setString(6, entry.getStatus().name());
+                    ps.setInt(7, message.getAttempts());
+                    ps.setString(8, truncate(entry.getError()));
+                });
+
+        // template -> {sent, failed, retried}
+        Map<String, long[]> counts = new HashMap<>();
+        for (EmailLogEntry entry : entries) {
+            String template = entry.getMessage().getTemplate() != null ? entry.getMessage().getTemplate() : NO_TEMPLATE;
+            counts.computeIfAbsent(template, key -> new long[3])[entry.getStatus() == EmailLogEntry.Status.SENT ? 0
+                    : entry.getStatus() == EmailLogEntry.Status.FAILED ? 1 : 2]++;
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO email_stats_daily (day, template, sent, failed, retried) VALUES (now()::date, ?, ?, ?, ?) " +
+                "ON CONFLICT (day, template) DO UPDATE SET sent = email_stats_daily.sent + EXCLUDED.sent, " +
+                "failed = email_stats_daily.failed + EXCLUDED.failed, retried = email_stats_daily.retried + EXCLUDED.retried",
+                new ArrayList<>(counts.entrySet()), BATCH_INSERT_SIZE, (ps, count) -> {
+                    ps.setString(1, count.getKey());
+                    ps.setLong(2, count.getValue()[0]);
+                    ps.setLong(3, count.getValue()[1]);
+                    ps.setLong(4, count.getValue()[2]);
+                });
+    }
+
+    /**
+     * Newest entries first, starting below {@code beforeId} (null = from the newest); optionally for one recipient.
+     */
+    public List<Map<String, Object>> findPage(Long beforeId, String recipient, int limit) {
+        // Conditions are only added when set, so each query shape can use its index (id, or recipient + id)
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, batch_id AS \"batchId\", recipient, subject, template, status, attempt, error, " +
+                "logged_at AS \"loggedAt\" FROM email_log WHERE true");
+        List<Object> args = new ArrayList<>();
+        if (beforeId != null) {
+            sql.append(" AND id < ?");
+            args.add(beforeId);
+        }
+        if (recipient != null) {
+            sql.append(" AND recipient = ?");
+            args.add(recipient);
+        }
+        sql.append(" ORDER BY id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.queryForList(sql.toString(), args.toArray());
+    }
+
+    public List<Map<String, Object>> findDailyTotals(int days) {
+        return jdbcTemplate.queryForList(
+                "SELECT day, sum(sent) AS sent, sum(failed) AS failed, sum(retried) AS retried FROM email_stats_daily " +
+                "WHERE day > current_date - ? GROUP BY day ORDER BY day",
+                days);
+    }
+
+    public List<Map<String, Object>> findTemplateTotals(int days) {
+        return jdbcTemplate.queryForList(
+                "SELECT NULLIF(template, '') AS template, sum(sent) AS sent, sum(failed) AS failed, sum(retried) AS retried " +
+                "FROM email_stats_daily WHERE day > current_date - ? GROUP BY template ORDER BY sum(sent) DESC, template",
+                days);
+    }
+
+    /**
+     * Delete up to {@code limit} of the oldest entries logged more than {@code days} days ago.
+     * Walks the primary key from the oldest id, which follows logged_at, so no index on logged_at is needed.
+     * @return number of rows deleted
+     */
+    public int deleteOlderThan(int days, int limit) {
+        return jdbcTemplate.update(
+                "DELETE FROM email_log WHERE id IN (" +
+                "    SELECT id FROM email_log WHERE logged_at < now() - make_interval(days => ?) ORDER BY id LIMIT ?)",
+                days, limit);
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
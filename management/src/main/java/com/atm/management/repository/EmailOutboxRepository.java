@@ -0,0 +1,156 @@
+package com.atm.management.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The email_outbox table (see V16__Create_email_outbox.sql).
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmailOutboxRepository {
+
+    private static final int BATCH_INSERT_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Queue one message per recipient under the given batch id, due immediately.
+     */
+    public void enqueue(UUID batchId, List<String> recipients, String subject, String body) {
+        enqueue(batchId, recipients.stream().map(recipient -> new OutboxEntry(recipient, subject, body, null)).toList());
+    }
+
+    /**
+     * Queue individually rendered messages under the given batch id, due immediately.
+     */
+    public void enqueue(UUID batchId, List<OutboxEntry> entries) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO email_outbox (batch_id, recipient, subject, body, template, attachment_name, attachment, " +
+                "status, next_attempt_at, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, 'PENDING', now(), now())",
+                entries, BATCH_INSERT_SIZE, (ps, entry) -> {
+                    ps.setObject(1, batchId);
+                    ps.setString(2, entry.getRecipient());
+                    ps.setString(3, entry.getSubject());
+                    ps.setString(4, entry.getBody());
+                    ps.setString(5, entry.getTemplate());
+                    ps.setString(6, entry.getAttachmentName());
+                    ps.setBytes(7, entry.getAttachment());
+                });
+    }
+
+    /**
+     * Claim up to {@code limit} due messages (oldest first) by moving them to SENDING and counting the attempt.
+     * Rows locked by another dispatcher are skipped rather than waited for.
+     */
+    public List<OutboxMessage> claimDue(int limit, long claimTimeoutSeconds) {
+        return jdbcTemplate.query(
+                "UPDATE email_outbox SET status = 'SENDING', attempts = attempts + 1, claimed_at = now() " +
+                "WHERE id IN (" +
+                "    SELECT id FROM email_outbox " +
+                "    WHERE (status IN ('PENDING', 'DEFERRED') AND next_attempt_at <= now()) " +
+                "       OR (status = 'SENDING' AND claimed_at < now() - make_interval(secs => ?)) " +
+                "    ORDER BY next_attempt_at, id LIMIT ? " +
+                "    FOR UPDATE SKIP LOCKED) " +
+                "RETURNING id, batch_id, recipient, subject, body, template, attachment_name, attachment, attempts",
+                (rs, rowNum) -> new OutboxMessage(
+                        rs.getLong("id"),
+                        rs.getObject("batch_id", UUID.class),
+                        rs.getString("recipient"),
+                        rs.getString("subject"),
+                        rs.getString("body"),
+                        rs.getString("template"),
+                        rs.getString("attachment_name"),
+                        rs.getBytes("attachment"),
+                        rs.getInt("attempts")),
+                claimTimeoutSeconds, limit);
+    }
+
+    /**
+     * Mark messages delivered; the attachment is dropped right away as it is never read again.
+     */
+    public void markSent(List<Long> ids) {
+        jdbcTemplate.update(
+                "UPDATE email_outbox SET status = 'SENT', sent_at = now(), claimed_at = NULL, last_error = NULL, " +
+                "attachment = NULL WHERE id = ANY (?)",
+                (Object) ids.toArray(Long[]::new));
+    }
+
+    /**
+     * Put a message back for another attempt {@code delaySeconds} from now.
+     */
+    public void markRetry(long id, String error, long delaySeconds) {
+        jdbcTemplate.update(
+                "UPDATE email_outbox SET status = 'PENDING', next_attempt_at = now() + make_interval(secs => ?), " +
+                "claimed_at = NULL, last_error = ? WHERE id = ?",
+                delaySeconds, truncate(error), id);
+    }
+
+    /**
+     * Hand claimed messages back without using up their attempt: each becomes due again after its delay.
+     */
+    public void markDeferred(Map<Long, Long> delayMillisById) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE email_outbox SET status = 'DEFERRED', attempts = attempts - 1, claimed_at = NULL, " +
+                "next_attempt_at = now() + make_interval(secs => ?) WHERE id = ?",
+                delayMillisById.entrySet(), BATCH_INSERT_SIZE, (ps, entry) -> {
+                    ps.setDouble(1, entry.getValue() / 1000d);
+                    ps.setLong(2, entry.getKey());
+                });
+    }
+
+    public void markFailed(long id, String error) {
+        jdbcTemplate.update(
+                "UPDATE email_outbox SET status = 'FAILED', claimed_at = NULL, last_error = ? WHERE id = ?",
+                truncate(error), id);
+    }
+
+    /**
+     * Delete up to {@code limit} SENT or FAILED messages created more than {@code days} days ago.
+     * @return number of rows deleted
+     */
+    public int deleteFinishedBefore(int days, int limit) {
+        return jdbcTemplate.update(
+                "DELETE FROM email_outbox WHERE id IN (" +
+                "    SELECT id FROM email_outbox WHERE status IN ('SENT', 'FAILED') " +
+                "    AND created_at < now() - make_interval(days => ?) LIMIT ?)",
+                days, limit);
+    }
+
+    /**
+     * Status -> message count for a batch; empty when the batch does not exist.
+     */
+    public Map<String, Long> countByStatus(UUID batchId) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT status, count(*) AS total FROM email_outbox WHERE batch_id = ? GROUP BY status ORDER BY status",
+                rs -> {
+                    counts.put(rs.getString("status"), rs.getLong("total"));
+                },
+                batchId);
+        return counts;
+    }
+
+    /**
+     * Messages of a batch that have given up, with the last error.
+     */
+    public List<Map<String, Object>> findFailed(UUID batchId, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT recipient, attempts, last_error AS \"lastError\" FROM email_outbox " +
+                "WHERE batch_id = ? AND status = 'FAILED' ORDER BY id LIMIT ?",
+                batchId, limit);
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
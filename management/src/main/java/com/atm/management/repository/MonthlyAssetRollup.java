@@ -0,0 +1,27 @@
+package com.atm.management.repository;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A month's row from asset_monthly_rollups joined with the daily rollup it was taken from.
+ */
+@Value
+public class MonthlyAssetRollup {
+    LocalDate month;
+    LocalDate rollupDate;
+    long totalAssets;
+    long idleAssets;
+    long maintenanceAssets;
+    long totalVendors;
+    long totalMovements;
+    long pendingMovements;
+    long inTransitMovements;
+    long deliveredMovements;
+    long cancelledMovements;
+    long movementsInitiated;
+    BigDecimal turnoverRate;
+    BigDecimal riskRate;
+}
@@ -0,0 +1,89 @@
+package com.atm.management.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Partition management for the month-partitioned movements table (see V7__Partition_movements_by_month.sql).
+ */
+@Repository
+@RequiredArgsConstructor
+public class MovementPartitionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create the monthly partition containing the given date if missing.
+     * A table of that name that is no longer attached (detached for archiving) counts as present, so nothing is
+     * created or moved; callers skip archived months (see {@link #isArchived(LocalDate)}).
+     * @return the partition name, e.g. movements_y2026m09
+     */
+    public String ensurePartition(LocalDate date) {
+        return jdbcTemplate.queryForObject("SELECT ensure_movement_partition(?)", String.class, date);
+    }
+
+    /**
+     * First day of every month that currently has rows in movements_default.
+     */
+    public List<LocalDate> findMonthsInDefaultPartition() {
+        return jdbcTemplate.queryForList(
+                "SELECT DISTINCT date_trunc('month', initiated_date)::date FROM movements_default ORDER BY 1",
+                LocalDate.class);
+    }
+
+    public long countInDefaultPartition(LocalDate month) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM movements_default WHERE initiated_date >= ? AND initiated_date < ?",
+                Long.class, month, month.plusMonths(1));
+        return count != null ? count : 0;
+    }
+
+    public List<Map<String, Object>> findPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bounds, " +
+                "COALESCE(s.n_live_tup, 0) AS \"estimatedRows\" " +
+                "FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "LEFT JOIN pg_stat_user_tables s ON s.relid = c.oid " +
+                "WHERE i.inhparent = 'movements'::regclass " +
+                "ORDER BY c.relname");
+    }
+
+    public boolean isAttached(String partitionName) {
+        Boolean attached = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'movements'::regclass AND c.relname = ?)",
+                Boolean.class, partitionName);
+        return Boolean.TRUE.equals(attached);
+    }
+
+    public boolean isArchived(LocalDate month) {
+        Boolean archived = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM movement_archived_months WHERE month = date_trunc('month', ?::date)::date)",
+                Boolean.class, month);
+        return Boolean.TRUE.equals(archived);
+    }
+
+    /**
+     * Record a month as archived; movements for it are rejected from now on (see V21__Reject_movements_for_archived_months.sql).
+     */
+    public void markArchived(LocalDate month, String partitionName) {
+        jdbcTemplate.update(
+                "INSERT INTO movement_archived_months (month, partition_name, detached_at) VALUES (?, ?, now()) " +
+                "ON CONFLICT (month) DO UPDATE SET partition_name = EXCLUDED.partition_name, detached_at = EXCLUDED.detached_at",
+                month, partitionName);
+    }
+
+    /**
+     * Detach a partition; it stays behind as a standalone table for archiving.
+     * The name must come from {@link #isAttached(String)}-checked input, never raw user text.
+     */
+    public void detachPartition(String partitionName) {
+        jdbcTemplate.execute("ALTER TABLE movements DETACH PARTITION " + partitionName);
+    }
+}
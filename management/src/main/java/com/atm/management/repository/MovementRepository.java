@@ -1,12 +1,14 @@
 package com.atm.management.repository;
 
 import com.atm.management.model.Movement;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,8 +23,10 @@ public interface MovementRepository extends JpaRepository<Movement, Long> {
     @Query("SELECT COUNT(m) FROM Movement m WHERE m.status = ?1")
     Long countByStatus(Movement.MovementStatus status);
 
-    @Query("SELECT m FROM Movement m ORDER BY m.initiatedDate DESC")
-    List<Movement> findRecentMovements();
+    long countByStatusInAndExpectedDeliveryBefore(Collection<Movement.MovementStatus> statuses, LocalDate date);
+
+    @Query("SELECT m FROM Movement m JOIN FETCH m.atm ORDER BY m.initiatedDate DESC, m.id DESC")
+    List<Movement> findRecentMovements(Pageable pageable);
 
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("DELETE FROM Movement m WHERE m.uploadedFile.id = ?1")
@@ -0,0 +1,42 @@
+package com.atm.management.repository;
+
+import com.atm.management.model.User;
+import com.atm.management.model.Vendor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Natural-id lookups that resolve through the second-level cache
+ * (vendors-by-name / users-by-email regions) before touching the database.
+ * Matches are exact; callers needing case-insensitive matching fall back to the Spring Data finders.
+ * Read-only (replica-eligible) by default, except for the user lookup used by authentication.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class NaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public Optional<Vendor> findVendorByName(String name) {
+        return session().bySimpleNaturalId(Vendor.class).loadOptional(name);
+    }
+
+    /**
+     * Not read-only, so it is never routed to the read replica: auth lookups right after registration
+     * or a profile change must see the primary.
+     */
+    @Transactional
+    public Optional<User> findUserByEmail(String email) {
+        return session().bySimpleNaturalId(User.class).loadOptional(email);
+    }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+}
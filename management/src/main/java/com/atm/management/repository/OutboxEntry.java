@@ -0,0 +1,22 @@
+package com.atm.management.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * A message to queue in email_outbox, with an optional attachment.
+ */
+@Value
+@AllArgsConstructor
+public class OutboxEntry {
+    String recipient;
+    String subject;
+    String body;
+    String template;
+    String attachmentName;
+    byte[] attachment;
+
+    public OutboxEntry(String recipient, String subject, String body, String template) {
+        this(recipient, subject, body, template, null, null);
+    }
+}
@@ -0,0 +1,29 @@
+package com.atm.management.repository;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * A claimed email_outbox row, ready to send.
+ */
+@Value
+public class OutboxMessage {
+    long id;
+    UUID batchId;
+    String recipient;
+    String subject;
+    String body;
+    String template;
+    String attachmentName;
+    byte[] attachment;
+    int attempts;
+
+    public enum Status {
+        PENDING,
+        DEFERRED,
+        SENDING,
+        SENT,
+        FAILED
+    }
+}
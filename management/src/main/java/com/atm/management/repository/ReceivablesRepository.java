@@ -0,0 +1,51 @@
+package com.atm.management.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads over receivables_totals (see V14__Add_receivables_totals.sql), which a trigger on atms keeps current.
+ * The table has one row per (vendor, billing month), so these aggregates never touch atms.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReceivablesRepository {
+
+    private static final String SUMS =
+            "COALESCE(sum(t.asset_count), 0) AS \"assetCount\", " +
+            "COALESCE(sum(t.total_final), 0) AS \"totalFinalAmount\", " +
+            "COALESCE(sum(t.total_received), 0) AS \"totalReceived\", " +
+            "COALESCE(sum(t.total_final - t.total_received), 0) AS \"outstanding\" ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Map<String, Object> findTotals() {
+        return jdbcTemplate.queryForMap("SELECT " + SUMS + "FROM receivables_totals t");
+    }
+
+    /**
+     * Totals per vendor, largest outstanding first. ATMs without a vendor are reported under vendorId 0.
+     */
+    public List<Map<String, Object>> findTotalsByVendor() {
+        return jdbcTemplate.queryForList(
+                "SELECT t.vendor_id AS \"vendorId\", v.name AS \"vendorName\", " + SUMS +
+                "FROM receivables_totals t LEFT JOIN vendors v ON v.id = t.vendor_id " +
+                "GROUP BY t.vendor_id, v.name HAVING sum(t.asset_count) > 0 " +
+                "ORDER BY \"outstanding\" DESC, t.vendor_id");
+    }
+
+    /**
+     * Totals per billing month as recorded on the ATMs (free text, 'N/A' when missing), ordered by month text.
+     */
+    public List<Map<String, Object>> findTotalsByBillingMonth() {
+        return jdbcTemplate.queryForList(
+                "SELECT t.billing_month AS \"billingMonth\", " + SUMS +
+                "FROM receivables_totals t " +
+                "GROUP BY t.billing_month HAVING sum(t.asset_count) > 0 " +
+                "ORDER BY t.billing_month");
+    }
+}
@@ -0,0 +1,80 @@
+package com.atm.management.repository;
+
+import com.atm.management.dto.response.SearchResultResponse;
+import com.atm.management.dto.response.SearchResultResponse.ResultType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ranked full-text search over the search_vector columns maintained by V6__Add_search_vectors.sql.
+ * All requested entity types are searched in a single UNION ALL statement.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SearchRepository {
+
+    /**
+     * Prefix tsquery for the free text bound to its parameter, built from the lexemes the 'simple' parser produces
+     * for that text: the same parser that built search_vector, so emails, docket paths (DKT/2024/001) and
+     * hyphenated numbers stay whole exactly as they were indexed. The lexemes are cast to tsquery as they are
+     * (to_tsquery would parse them a second time) and each is quoted, so user input can never inject tsquery syntax.
+     * Yields NULL (no matches) when the text has no lexemes.
+     */
+    static final String PREFIX_QUERY =
+            "(SELECT string_agg('''' || replace(replace(lexeme, '\\', '\\\\'), '''', '''''') || ''':*', ' & ')::tsquery " +
+            "FROM unnest(to_tsvector('simple', ?)))";
+
+    private static final Map<ResultType, String> BRANCHES = new EnumMap<>(ResultType.class);
+
+    static {
+        BRANCHES.put(ResultType.ATM,
+                "SELECT 'ATM' AS type, a.id, a.name AS title, " +
+                "concat_ws(' | ', a.serial_number, a.location) AS subtitle, " +
+                "ts_rank(a.search_vector, q.query) AS rank " +
+                "FROM atms a, q WHERE a.search_vector @@ q.query");
+        BRANCHES.put(ResultType.MOVEMENT,
+                "SELECT 'MOVEMENT' AS type, m.id, coalesce(m.docket_no, m.tracking_number) AS title, " +
+                "concat_ws(' | ', m.tracking_number, m.from_location || ' -> ' || m.to_location) AS subtitle, " +
+                "ts_rank(m.search_vector, q.query) AS rank " +
+                "FROM movements m, q WHERE m.search_vector @@ q.query");
+        BRANCHES.put(ResultType.VENDOR,
+                "SELECT 'VENDOR' AS type, v.id, v.name AS title, v.email AS subtitle, " +
+                "ts_rank(v.search_vector, q.query) AS rank " +
+                "FROM vendors v, q WHERE v.search_vector @@ q.query");
+        BRANCHES.put(ResultType.NOTICE,
+                "SELECT 'NOTICE' AS type, n.id, n.title, concat_ws(' | ', n.priority, n.invoice_status) AS subtitle, " +
+                "ts_rank(n.search_vector, q.query) AS rank " +
+                "FROM notices n, q WHERE n.search_vector @@ q.query");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param text free search text; every word in it must match as a prefix (see {@link #PREFIX_QUERY})
+     */
+    public List<SearchResultResponse> search(String text, Set<ResultType> types, int limit) {
+        List<String> branches = new ArrayList<>();
+        for (ResultType type : types) {
+            branches.add(BRANCHES.get(type));
+        }
+
+        String sql = "WITH q AS (SELECT " + PREFIX_QUERY + " AS query) " +
+                "SELECT * FROM (" + String.join(" UNION ALL ", branches) + ") hits " +
+                "ORDER BY rank DESC, type, id LIMIT ?";
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new SearchResultResponse(
+                ResultType.valueOf(rs.getString("type")),
+                rs.getLong("id"),
+                rs.getString("title"),
+                rs.getString("subtitle"),
+                rs.getDouble("rank")
+        ), text, limit);
+    }
+}
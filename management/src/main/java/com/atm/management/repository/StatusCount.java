@@ -0,0 +1,9 @@
+package com.atm.management.repository;
+
+/**
+ * Projection for grouped "status -> row count" aggregate queries.
+ */
+public interface StatusCount {
+    String getStatus();
+    Long getTotal();
+}
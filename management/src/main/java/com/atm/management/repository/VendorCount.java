@@ -0,0 +1,10 @@
+package com.atm.management.repository;
+
+/**
+ * Projection for grouped "vendor -> ATM count" queries.
+ */
+public interface VendorCount {
+    Long getVendorId();
+    String getName();
+    Long getTotal();
+}
@@ -1,6 +1,7 @@
 package com.atm.management.repository;
 
 import com.atm.management.model.Vendor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -18,9 +19,20 @@ public interface VendorRepository extends JpaRepository<Vendor, Long> {
     @Query("SELECT v FROM Vendor v WHERE v.name LIKE %?1%")
     List<Vendor> searchByName(String keyword);
 
+    @Query("SELECT v FROM Vendor v ORDER BY v.assetsAllocated DESC, v.id")
+    List<Vendor> findTopByAssetsAllocated(Pageable pageable);
+
     @Query("SELECT COUNT(v) FROM Vendor v WHERE v.status = 'ACTIVE'")
     Long countActiveVendors();
 
+    @Query(value = "SELECT COUNT(*) AS \"totalVendors\", " +
+            "COUNT(*) FILTER (WHERE status = 'ACTIVE') AS \"activeVendors\", " +
+            "COALESCE(SUM(assets_allocated), 0) AS \"totalAssetsAllocated\", " +
+            "COALESCE(AVG(rating), 0) AS \"averageRating\", " +
+            "COALESCE(SUM(total_cost), 0) AS \"totalCost\" " +
+            "FROM vendors", nativeQuery = true)
+    VendorStatistics aggregateStatistics();
+
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("DELETE FROM Vendor v WHERE v.uploadedFile.id = ?1 AND v.id NOT IN (SELECT DISTINCT a.vendor.id FROM Atm a WHERE a.vendor IS NOT NULL)")
     int deleteByUploadedFileId(Long uploadedFileId);
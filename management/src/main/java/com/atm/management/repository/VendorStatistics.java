@@ -0,0 +1,14 @@
+package com.atm.management.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for the single-row vendor statistics aggregate.
+ */
+public interface VendorStatistics {
+    Long getTotalVendors();
+    Long getActiveVendors();
+    Long getTotalAssetsAllocated();
+    BigDecimal getAverageRating();
+    BigDecimal getTotalCost();
+}
@@ -0,0 +1,130 @@
+package com.atm.management.service;
+
+import com.atm.management.event.DataChangeEvent;
+import com.atm.management.event.DataChangeEvent.Domain;
+import com.atm.management.repository.AgeingTotals;
+import com.atm.management.repository.AssetAgeingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Asset ageing (pickup to delivery, or to today while undelivered) and its global / per-vendor averages.
+ * Averages are read from running sums, so none of these reads scale with the number of assets.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetAgeingService {
+
+    private final AssetAgeingRepository ageingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        runNightlyReage();
+    }
+
+    /**
+     * Undelivered assets age by a day every day without any write to atms, so re-age them after midnight.
+     */
+    @Scheduled(cron = "${app.ageing.cron:0 5 0 * * *}")
+    public void runNightlyReage() {
+        try {
+            int updated = reageOpenAssets();
+            log.info("Re-aged {} undelivered assets", updated);
+        } catch (Exception e) {
+            log.error("Asset ageing refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs in its own transaction (called from within this class, so not through the proxy); the change event is
+     * published inside it, so cache eviction waits for the commit.
+     */
+    public int reageOpenAssets() {
+        Integer updated = new TransactionTemplate(transactionManager).execute(status -> {
+            int count = ageingRepository.reageOpenAssets();
+            if (count > 0) {
+                eventPublisher.publishEvent(DataChangeEvent.of(Domain.ATMS));
+            }
+            return count;
+        });
+        return updated == null ? 0 : updated;
+    }
+
+    /**
+     * Average ageing in days over all assets with a pickup date, or null when there are none.
+     */
+    @Transactional(readOnly = true)
+    public Double getAverageAgeingDays() {
+        return ageingRepository.findTotals(AssetAgeingRepository.ALL_VENDORS)
+                .map(AgeingTotals::getAverageDays)
+                .orElse(null);
+    }
+
+    @Transactional(readOnly = true)
+    public Double getVendorAverageAgeingDays(Long vendorId) {
+        return ageingRepository.findTotals(vendorId)
+                .map(AgeingTotals::getAverageDays)
+                .orElse(null);
+    }
+
+    /**
+     * Vendor id -> average ageing days, for vendors that have aged assets.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Double> getVendorAverageAgeingDays() {
+        return ageingRepository.findVendorTotals()
+                .stream()
+                .collect(Collectors.toMap(AgeingTotals::getVendorId, AgeingTotals::getAverageDays));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAgeingSummary() {
+        AgeingTotals totals = ageingRepository.findTotals(AssetAgeingRepository.ALL_VENDORS)
+                .orElse(new AgeingTotals(AssetAgeingRepository.ALL_VENDORS, null, 0, 0, 0, 0, 0, 0));
+
+        List<Map<String, Object>> vendors = ageingRepository.findVendorTotals()
+                .stream()
+                .map(vendor -> {
+                    Map<String, Object> vendorData = new HashMap<>();
+                    vendorData.put("vendorId", vendor.getVendorId());
+                    vendorData.put("vendorName", vendor.getVendorName());
+                    vendorData.put("averageAgeingDays", vendor.getAverageDays());
+                    vendorData.put("assetCount", vendor.getAssetCount());
+                    return vendorData;
+                })
+                .collect(Collectors.toList());
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("averageAgeingDays", totals.getAverageDays());
+        summary.put("assetCount", totals.getAssetCount());
+        summary.put("buckets", toBuckets(totals));
+        summary.put("vendors", vendors);
+        return summary;
+    }
+
+    private static Map<String, Long> toBuckets(AgeingTotals totals) {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        buckets.put("0-30", totals.getBucket0To30());
+        buckets.put("31-60", totals.getBucket31To60());
+        buckets.put("61-90", totals.getBucket61To90());
+        buckets.put("90+", totals.getBucketOver90());
+        return buckets;
+    }
+}
@@ -0,0 +1,33 @@
+package com.atm.management.service;
+
+import com.atm.management.repository.AtmRepository;
+import com.atm.management.repository.StatusCount;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Grouped counts over the atms table shared by the dashboard widgets.
+ */
+@Service
+@RequiredArgsConstructor
+public class AssetAggregateService {
+
+    private final AtmRepository atmRepository;
+
+    /**
+     * Asset status -> number of ATMs, ordered by status, from a single GROUP BY query.
+     * ATMs without a status are counted under a null key.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> getAssetStatusCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (StatusCount row : atmRepository.countGroupedByAssetStatus()) {
+            counts.put(row.getStatus(), row.getTotal());
+        }
+        return counts;
+    }
+}
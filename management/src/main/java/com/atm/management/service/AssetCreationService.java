@@ -1,13 +1,17 @@
 package com.atm.management.service;
 
+import com.atm.management.event.DataChangeEvent;
+import com.atm.management.event.DataChangeEvent.Domain;
 import com.atm.management.model.Atm;
 import com.atm.management.model.Vendor;
 import com.atm.management.model.EmailRecipient;
 import com.atm.management.model.UploadedFile;
 import com.atm.management.repository.AtmRepository;
+import com.atm.management.repository.NaturalIdRepository;
 import com.atm.management.repository.VendorRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,7 +31,9 @@ public class AssetCreationService {
 
     private final AtmRepository atmRepository;
     private final VendorRepository vendorRepository;
+    private final NaturalIdRepository naturalIdRepository;
     private final com.atm.management.repository.CostingRepository costingRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Entry method — NOT transactional on purpose
@@ -142,6 +148,8 @@ public class AssetCreationService {
             saveCostingBatch(costingBatch);
         }
 
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.ATMS, Domain.VENDORS, Domain.COSTINGS));
+
         result.put("success", errors.isEmpty());
         result.put("totalProcessed", recipients.size());
         result.put("assetsCreated", createdAssets.size());
@@ -290,7 +298,8 @@ public class AssetCreationService {
                         ? "Default Vendor"
                         : vendorName.trim();
 
-        return vendorRepository.findByNameIgnoreCase(finalName)
+        return naturalIdRepository.findVendorByName(finalName)
+                .or(() -> vendorRepository.findByNameIgnoreCase(finalName))
                 .orElseGet(() -> {
                     Vendor vendor = new Vendor();
                     vendor.setName(finalName);
@@ -0,0 +1,78 @@
+package com.atm.management.service;
+
+import com.atm.management.event.DataChangeEvent;
+import com.atm.management.event.DataChangeEvent.Domain;
+import com.atm.management.repository.AssetRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes the daily and monthly rollups behind the turnover / risk trend charts and monthly statistics.
+ * Runs once at startup and then daily shortly before midnight, so each day's row reflects its closing state.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetRollupService {
+
+    private final AssetRollupRepository rollupRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    // asset_status is free text from the imports; these substrings classify it (case-insensitive)
+    @Value("${app.rollups.idle-keywords:idle,storage,warehouse,spare,standby}")
+    private List<String> idleKeywords;
+
+    @Value("${app.rollups.maintenance-keywords:maint,repair,fault,fail,breakdown}")
+    private List<String> maintenanceKeywords;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        runDailyRollup();
+    }
+
+    @Scheduled(cron = "${app.rollups.cron:0 55 23 * * *}")
+    public void runDailyRollup() {
+        try {
+            rollUp(LocalDate.now());
+        } catch (Exception e) {
+            log.error("Asset rollup failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Record the rollup for a day and refresh its month in one transaction. Re-running for the same day overwrites it.
+     * The transaction is explicit because the startup and cron triggers call this from inside the bean,
+     * where an @Transactional proxy would be bypassed.
+     */
+    public void rollUp(LocalDate day) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            rollupRepository.upsertDailyRollup(day, toPatterns(idleKeywords), toPatterns(maintenanceKeywords));
+            rollupRepository.replaceStatusCounts(day);
+            rollupRepository.upsertMonthlyRollup(day);
+            // Delivered after commit
+            eventPublisher.publishEvent(DataChangeEvent.of(Domain.ROLLUPS));
+        });
+        log.info("Recorded asset rollup for {}", day);
+    }
+
+    private static String[] toPatterns(List<String> keywords) {
+        return keywords.stream()
+                .map(String::trim)
+                .filter(keyword -> !keyword.isEmpty())
+                .map(keyword -> "%" + keyword.toLowerCase() + "%")
+                .toArray(String[]::new);
+    }
+}
@@ -3,12 +3,15 @@ package com.atm.management.service;
 import com.atm.management.dto.request.AtmRequest;
 import com.atm.management.dto.response.AtmResponse;
 import com.atm.management.dto.response.VendorSummary;
+import com.atm.management.event.DataChangeEvent;
+import com.atm.management.event.DataChangeEvent.Domain;
 import com.atm.management.exception.ResourceNotFoundException;
 import com.atm.management.model.Atm;
 import com.atm.management.model.Vendor;
 import com.atm.management.repository.AtmRepository;
 import com.atm.management.repository.VendorRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +25,7 @@ public class AtmService {
 
     private final AtmRepository atmRepository;
     private final VendorRepository vendorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<AtmResponse> getAllAtms() {
@@ -79,6 +83,7 @@ public class AtmService {
         }
 
         Atm savedAtm = atmRepository.save(atm);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.ATMS));
         return mapToResponse(savedAtm);
     }
 
@@ -97,6 +102,7 @@ public class AtmService {
 
         mapRequestToEntity(request, atm);
         Atm updatedAtm = atmRepository.save(atm);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.ATMS));
         return mapToResponse(updatedAtm);
     }
 
@@ -106,6 +112,7 @@ public class AtmService {
             throw new ResourceNotFoundException("ATM not found with id: " + id);
         }
         atmRepository.deleteById(id);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.ATMS));
     }
 
     @Transactional
@@ -115,6 +122,7 @@ public class AtmService {
 
         atm.setAssetStatus(status);
         Atm updatedAtm = atmRepository.save(atm);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.ATMS));
         return mapToResponse(updatedAtm);
     }
 
@@ -7,6 +7,7 @@ import com.atm.management.dto.response.UserResponse;
 import com.atm.management.exception.AuthenticationException;
 import com.atm.management.exception.ResourceNotFoundException;
 import com.atm.management.model.User;
+import com.atm.management.repository.NaturalIdRepository;
 import com.atm.management.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +23,7 @@ import java.time.LocalDateTime;
 public class AuthService {
 
     private final UserRepository userRepository;
+    private final NaturalIdRepository naturalIdRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
 
@@ -31,7 +33,7 @@ public class AuthService {
         log.info("Email: {}", request.getEmail());
         log.info("Password length: {}", request.getPassword() != null ? request.getPassword().length() : 0);
 
-        User user = userRepository.findByEmail(request.getEmail())
+        User user = naturalIdRepository.findUserByEmail(request.getEmail())
                 .orElseThrow(() -> {
                     log.error("User not found with email: {}", request.getEmail());
                     return new AuthenticationException("Invalid email or password");
@@ -134,11 +136,11 @@ public class AuthService {
         }
     }
 
-    @Transactional(readOnly = true)
+    @Transactional
     public UserResponse getCurrentUser(String token) {
         String email = jwtService.extractEmail(token);
 
-        User user = userRepository.findByEmail(email)
+        User user = naturalIdRepository.findUserByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         return mapToUserResponse(user);
@@ -146,13 +148,11 @@ public class AuthService {
 
     public AuthResponse refreshToken(String token) {
         // Verify token is valid
-        if (!jwtService.validateToken(token)) {
-            throw new AuthenticationException("Invalid or expired token");
-        }
-
-        String email = jwtService.extractEmail(token);
+        String email = jwtService.parseValidClaims(token)
+                .orElseThrow(() -> new AuthenticationException("Invalid or expired token"))
+                .getSubject();
 
-        User user = userRepository.findByEmail(email)
+        User user = naturalIdRepository.findUserByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         // Generate new token
@@ -176,7 +176,7 @@ public class AuthService {
     public void changePassword(String token, String currentPassword, String newPassword) {
         String email = jwtService.extractEmail(token);
 
-        User user = userRepository.findByEmail(email)
+        User user = naturalIdRepository.findUserByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         // Verify current password
@@ -197,7 +197,7 @@ public class AuthService {
     }
 
     public void sendPasswordResetEmail(String email) {
-        User user = userRepository.findByEmail(email)
+        User user = naturalIdRepository.findUserByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("No account found with this email"));
 
         // Generate password reset token (valid for 1 hour)
@@ -215,13 +215,11 @@ public class AuthService {
     @Transactional
     public void resetPassword(String resetToken, String newPassword) {
         // Verify reset token
-        if (!jwtService.validateToken(resetToken)) {
-            throw new AuthenticationException("Invalid or expired reset token");
-        }
-
-        String email = jwtService.extractEmail(resetToken);
+        String email = jwtService.parseValidClaims(resetToken)
+                .orElseThrow(() -> new AuthenticationException("Invalid or expired reset token"))
+                .getSubject();
 
-        User user = userRepository.findByEmail(email)
+        User user = naturalIdRepository.findUserByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         // Validate new password
@@ -236,7 +234,7 @@ public class AuthService {
         log.info("Password reset successfully for user: {}", email);
     }
 
-    @Transactional(readOnly = true)
+    @Transactional
     public boolean emailExists(String email) {
         return userRepository.existsByEmail(email);
     }
@@ -245,7 +243,7 @@ public class AuthService {
     public UserResponse updateProfile(String token, String name, String email, String phone, String department, String avatarUrl) {
         String extractedEmail = jwtService.extractEmail(token);
 
-        User user = userRepository.findByEmail(extractedEmail)
+        User user = naturalIdRepository.findUserByEmail(extractedEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (name != null && !name.isEmpty()) {
@@ -0,0 +1,64 @@
+package com.atm.management.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class CacheStatisticsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Hit/miss/put counts and hit ratio for every second-level cache region, plus overall totals.
+     */
+    public Map<String, Object> getSecondLevelCacheStatistics() {
+        Statistics statistics = statistics();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            regions.put(regionName, toMap(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("overall", toMap(
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount()));
+        result.put("naturalId", toMap(
+                statistics.getNaturalIdCacheHitCount(),
+                statistics.getNaturalIdCacheMissCount(),
+                statistics.getNaturalIdCachePutCount()));
+        result.put("regions", regions);
+        result.put("statisticsSince", statistics.getStart());
+        return result;
+    }
+
+    public void resetStatistics() {
+        statistics().clear();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Map<String, Object> toMap(long hits, long misses, long puts) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("puts", puts);
+        long lookups = hits + misses;
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hits / lookups);
+        return stats;
+    }
+}
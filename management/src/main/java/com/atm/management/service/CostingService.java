@@ -4,6 +4,8 @@ import com.atm.management.dto.request.CostingRequest;
 import com.atm.management.dto.response.AtmSummary;
 import com.atm.management.dto.response.CostingResponse;
 import com.atm.management.dto.response.VendorSummary;
+import com.atm.management.event.DataChangeEvent;
+import com.atm.management.event.DataChangeEvent.Domain;
 import com.atm.management.exception.ResourceNotFoundException;
 import com.atm.management.model.Atm;
 import com.atm.management.model.Costing;
@@ -12,6 +14,7 @@ import com.atm.management.repository.AtmRepository;
 import com.atm.management.repository.CostingRepository;
 import com.atm.management.repository.VendorRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,6 +32,7 @@ public class CostingService {
     private final CostingRepository costingRepository;
     private final AtmRepository atmRepository;
     private final VendorRepository vendorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<CostingResponse> getAllCostings() {
@@ -84,6 +88,7 @@ public class CostingService {
         costing.setSubmittedDate(LocalDate.now());
 
         Costing savedCosting = costingRepository.save(costing);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.COSTINGS));
         return mapToResponse(savedCosting);
     }
 
@@ -105,6 +110,7 @@ public class CostingService {
 
         mapRequestToEntity(request, costing, atm, vendor);
         Costing updatedCosting = costingRepository.save(costing);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.COSTINGS));
         return mapToResponse(updatedCosting);
     }
 
@@ -122,6 +128,7 @@ public class CostingService {
         costing.setApprovedDate(LocalDate.now());
 
         Costing approvedCosting = costingRepository.save(costing);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.COSTINGS));
         return mapToResponse(approvedCosting);
     }
 
@@ -139,6 +146,7 @@ public class CostingService {
         costing.setApprovedDate(LocalDate.now());
 
         Costing rejectedCosting = costingRepository.save(costing);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.COSTINGS));
         return mapToResponse(rejectedCosting);
     }
 
@@ -148,6 +156,7 @@ public class CostingService {
             throw new ResourceNotFoundException("Costing not found with id: " + id);
         }
         costingRepository.deleteById(id);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.COSTINGS));
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,63 @@
+package com.atm.management.service;
+
+import com.atm.management.config.CacheConfig;
+import com.atm.management.event.DataChangeEvent;
+import com.atm.management.event.DataChangeEvent.Domain;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Clears the dashboard caches affected by a committed data change. These back the endpoints the snapshot does not
+ * hold (paged locations, receivables, statistics, long recent-movement lists); snapshot sections are never cached.
+ * Runs before any other listener so nothing reads an entry about to be evicted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardCacheEvictor {
+
+    private static final Map<Domain, Set<String>> CACHES_BY_DOMAIN = new EnumMap<>(Domain.class);
+
+    static {
+        CACHES_BY_DOMAIN.put(Domain.ATMS, Set.of(CacheConfig.DASHBOARD_ASSETS, CacheConfig.DASHBOARD_MOVEMENTS,
+                CacheConfig.DASHBOARD_STATS));
+        CACHES_BY_DOMAIN.put(Domain.MOVEMENTS, Set.of(CacheConfig.DASHBOARD_MOVEMENTS, CacheConfig.DASHBOARD_STATS));
+        CACHES_BY_DOMAIN.put(Domain.COSTINGS, Set.of());
+        CACHES_BY_DOMAIN.put(Domain.VENDORS, Set.of(CacheConfig.DASHBOARD_STATS, CacheConfig.VENDOR_STATS));
+        CACHES_BY_DOMAIN.put(Domain.ROLLUPS, Set.of(CacheConfig.DASHBOARD_STATS));
+    }
+
+    private final CacheManager cacheManager;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        Set<String> cacheNames = new HashSet<>();
+        event.getDomains().forEach(domain -> cacheNames.addAll(CACHES_BY_DOMAIN.get(domain)));
+        cacheNames.forEach(this::clear);
+        log.debug("Evicted dashboard caches {} after change to {}", cacheNames, event.getDomains());
+    }
+
+    public void evictAll() {
+        CACHES_BY_DOMAIN.values().stream().flatMap(Set::stream).distinct().forEach(this::clear);
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
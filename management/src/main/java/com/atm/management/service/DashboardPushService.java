@@ -0,0 +1,150 @@
+package com.atm.management.service;
+
+import com.atm.management.event.DataChangeEvent;
+import com.atm.management.event.DataChangeEvent.Domain;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pushes dashboard changes to open dashboards over Server-Sent Events so they do not need to poll.
+ *
+ * Committed {@link DataChangeEvent}s (imports, movement status changes, costing approvals, ...) are only
+ * collected; a debounced flush then reads the KPIs once from the snapshot and sends every subscriber
+ * the same two events: "kpis" with just the KPI values that changed, and "widgets" with the widget keys
+ * (see {@link DashboardSnapshotService.Widget}) whose data may have changed, to refetch via /api/dashboard/widgets.
+ * Work per flush is therefore independent of how many dashboards are open.
+ */
+@Slf4j
+@Service
+public class DashboardPushService {
+
+    private final DashboardSnapshotService dashboardSnapshotService;
+    private final long emitterTimeoutMs;
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final Set<Domain> pendingDomains = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // KPIs as of the last broadcast; every subscriber holds exactly these values
+    private volatile Map<String, Object> lastKpis;
+
+    public DashboardPushService(DashboardSnapshotService dashboardSnapshotService,
+                                @Value("${app.dashboard.push.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.dashboardSnapshotService = dashboardSnapshotService;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    /**
+     * Register a dashboard. It first receives the full KPIs of the last broadcast, then deltas.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        synchronized (this) {
+            if (lastKpis == null) {
+                lastKpis = new HashMap<>(dashboardSnapshotService.getKPIs());
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("kpis")
+                        .id(Long.toString(sequence.get()))
+                        .data(Map.of("full", true, "kpis", lastKpis)));
+                emitters.add(emitter);
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        pendingDomains.addAll(event.getDomains());
+    }
+
+    /**
+     * Send what changed since the last flush; a burst of writes within the debounce window is one broadcast.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.push.debounce-ms:2000}")
+    public synchronized void flush() {
+        if (pendingDomains.isEmpty()) {
+            return;
+        }
+        Set<Domain> domains = EnumSet.noneOf(Domain.class);
+        for (Domain domain : Domain.values()) {
+            if (pendingDomains.remove(domain)) {
+                domains.add(domain);
+            }
+        }
+        if (emitters.isEmpty()) {
+            // Nobody to tell; the next subscriber starts from fresh KPIs
+            lastKpis = null;
+            return;
+        }
+
+        try {
+            Map<String, Object> kpis = dashboardSnapshotService.getKPIs();
+            Map<String, Object> changes = new HashMap<>();
+            kpis.forEach((key, value) -> {
+                if (lastKpis == null || !Objects.equals(value, lastKpis.get(key))) {
+                    changes.put(key, value);
+                }
+            });
+            lastKpis = new HashMap<>(kpis);
+
+            String id = Long.toString(sequence.incrementAndGet());
+            List<String> widgets = dashboardSnapshotService.widgetKeysAffectedBy(domains);
+            if (!changes.isEmpty()) {
+                Map<String, Object> delta = Map.of("full", false, "kpis", changes);
+                broadcast(() -> SseEmitter.event().name("kpis").id(id).data(delta));
+            }
+            broadcast(() -> SseEmitter.event().name("widgets").id(id).data(widgets));
+            log.debug("Pushed dashboard update {} to {} subscribers ({} KPI changes)", id, emitters.size(), changes.size());
+        } catch (RuntimeException e) {
+            pendingDomains.addAll(domains);
+            log.warn("Dashboard push failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Comment line so idle connections are not closed by proxies; also drops dashboards that went away.
+     */
+    @Scheduled(fixedRateString = "${app.dashboard.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        broadcast(() -> SseEmitter.event().comment("keepalive"));
+    }
+
+    public int getSubscriberCount() {
+        return emitters.size();
+    }
+
+    /**
+     * A fresh builder per emitter: SseEventBuilder.build() appends to the builder, so a shared one would
+     * resend earlier subscribers' chunks to every later subscriber.
+     */
+    private void broadcast(Supplier<SseEmitter.SseEventBuilder> event) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(event.get());
+            } catch (IOException | IllegalStateException e) {
+                emitters.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -1,31 +1,53 @@
 package com.atm.management.service;
 
+import com.atm.management.config.CacheConfig;
 import com.atm.management.dto.response.*;
+import com.atm.management.exception.ResourceNotFoundException;
 import com.atm.management.model.Atm;
 import com.atm.management.model.Costing;
 import com.atm.management.model.Movement;
-import com.atm.management.model.Vendor;
+import com.atm.management.repository.AssetRollupRepository;
 import com.atm.management.repository.AtmRepository;
+import com.atm.management.repository.CityCount;
 import com.atm.management.repository.CostingRepository;
+import com.atm.management.repository.MonthlyAssetRollup;
 import com.atm.management.repository.MovementRepository;
+import com.atm.management.repository.ReceivablesRepository;
 import com.atm.management.repository.VendorRepository;
+import com.atm.management.service.alert.AlertRuleEngine;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
 
+    private static final int VENDOR_ALLOCATION_TOP_N = 5;
+
     private final AtmRepository atmRepository;
     private final VendorRepository vendorRepository;
     private final MovementRepository movementRepository;
     private final CostingRepository costingRepository;
+    private final AssetAggregateService assetAggregateService;
+    private final AlertRuleEngine alertRuleEngine;
+    private final AssetRollupRepository assetRollupRepository;
+    private final AssetAgeingService assetAgeingService;
+    private final ReceivablesRepository receivablesRepository;
+
+    @Value("${app.dashboard.vendor-allocation.mode:stored}")
+    private String vendorAllocationMode;
 
     @Transactional(readOnly = true)
     public DashboardResponse getDashboardData() {
@@ -78,6 +100,8 @@ public class DashboardService {
         kpis.put("activeVendors", activeVendors);
         kpis.put("pendingMovements", pendingMovements);
         kpis.put("pendingApprovals", pendingApprovals);
+        kpis.put("averageAgeingDays", assetAgeingService.getAverageAgeingDays());
+        kpis.put("outstandingReceivables", receivablesRepository.findTotals().get("outstanding"));
 
         return kpis;
     }
@@ -89,22 +113,8 @@ public class DashboardService {
         return data;
     }
 
-    private List<ChartData> getAssetTurnoverDataList() {
-        List<ChartData> chartData = new ArrayList<>();
-
-        // Generate data for last 6 months
-        LocalDate now = LocalDate.now();
-        for (int i = 5; i >= 0; i--) {
-            YearMonth month = YearMonth.from(now.minusMonths(i));
-            String monthName = month.getMonth().name().substring(0, 3);
-
-            // Simulate turnover percentage (in production, calculate from actual data)
-            double turnover = 8.0 + Math.random() * 5.0; // Random between 8-13%
-
-            chartData.add(new ChartData(monthName, Math.round(turnover * 10.0) / 10.0));
-        }
-
-        return chartData;
+    List<ChartData> getAssetTurnoverDataList() {
+        return monthlyTrend(rollup -> rollup.getTurnoverRate().setScale(1, RoundingMode.HALF_UP));
     }
 
     @Transactional(readOnly = true)
@@ -114,17 +124,16 @@ public class DashboardService {
         return data;
     }
 
-    private List<ChartData> getAssetDistributionDataList() {
+    List<ChartData> getAssetDistributionDataList() {
         List<ChartData> chartData = new ArrayList<>();
 
         // Dynamic status distribution
-        List<String> statuses = atmRepository.findDistinctAssetStatuses();
-        for (String status : statuses) {
+        for (Map.Entry<String, Long> entry : assetAggregateService.getAssetStatusCounts().entrySet()) {
+            String status = entry.getKey();
             if (status != null && !status.trim().isEmpty()) {
-                Long count = atmRepository.countByAssetStatus(status);
                 // Generate a random color or use a default one
                 String color = "hsl(" + (Math.abs(status.hashCode()) % 360) + ", 70%, 50%)";
-                chartData.add(new ChartData(status, count, color, status));
+                chartData.add(new ChartData(status, entry.getValue(), color, status));
             }
         }
 
@@ -138,20 +147,27 @@ public class DashboardService {
         return data;
     }
 
-    private List<ChartData> getVendorAllocationDataList() {
-        List<Vendor> topVendors = vendorRepository.findAll()
+    /**
+     * Top vendors for the allocation chart, either by the stored Vendor.assetsAllocated (index-ordered LIMIT)
+     * or, in "live" mode, by ATMs currently assigned to each vendor (grouped join on atms.vendor_id).
+     */
+    List<ChartData> getVendorAllocationDataList() {
+        PageRequest top = PageRequest.of(0, VENDOR_ALLOCATION_TOP_N);
+        if ("live".equalsIgnoreCase(vendorAllocationMode)) {
+            return atmRepository.countGroupedByVendor(top)
+                    .stream()
+                    .map(row -> new ChartData(abbreviateVendorName(row.getName()), row.getTotal()))
+                    .collect(Collectors.toList());
+        }
+
+        return vendorRepository.findTopByAssetsAllocated(top)
                 .stream()
-                .sorted((v1, v2) -> Integer.compare(v2.getAssetsAllocated(), v1.getAssetsAllocated()))
-                .limit(5)
+                .map(vendor -> new ChartData(abbreviateVendorName(vendor.getName()), vendor.getAssetsAllocated()))
                 .collect(Collectors.toList());
+    }
 
-        return topVendors.stream()
-                .map(vendor -> new ChartData(
-                        vendor.getName().length() > 15 ?
-                                vendor.getName().substring(0, 15) : vendor.getName(),
-                        vendor.getAssetsAllocated()
-                ))
-                .collect(Collectors.toList());
+    private static String abbreviateVendorName(String name) {
+        return name.length() > 15 ? name.substring(0, 15) : name;
     }
 
     @Transactional(readOnly = true)
@@ -161,24 +177,34 @@ public class DashboardService {
         return data;
     }
 
-    private List<ChartData> getRiskTrendDataList() {
-        List<ChartData> chartData = new ArrayList<>();
-
-        // Generate risk trend for last 6 months (simulated)
-        LocalDate now = LocalDate.now();
-        for (int i = 5; i >= 0; i--) {
-            YearMonth month = YearMonth.from(now.minusMonths(i));
-            String monthName = month.getMonth().name().substring(0, 3);
+    List<ChartData> getRiskTrendDataList() {
+        return monthlyTrend(rollup -> rollup.getRiskRate().setScale(1, RoundingMode.HALF_UP));
+    }
 
-            // Simulate decreasing risk trend
-            int risk = 35 - (i * 2); // Risk decreasing over time
+    /**
+     * One point per month for the last 6 months, read from asset_monthly_rollups.
+     * Months without a recorded rollup get a null value rather than a made-up one.
+     */
+    private List<ChartData> monthlyTrend(Function<MonthlyAssetRollup, Object> value) {
+        YearMonth current = YearMonth.now();
+        YearMonth first = current.minusMonths(5);
+
+        Map<LocalDate, MonthlyAssetRollup> byMonth = new HashMap<>();
+        for (MonthlyAssetRollup rollup : assetRollupRepository.findMonthlyRollups(first.atDay(1), current.atDay(1))) {
+            byMonth.put(rollup.getMonth(), rollup);
+        }
 
-            chartData.add(new ChartData(monthName, risk));
+        List<ChartData> chartData = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(current); month = month.plusMonths(1)) {
+            String monthName = month.getMonth().name().substring(0, 3);
+            MonthlyAssetRollup rollup = byMonth.get(month.atDay(1));
+            chartData.add(new ChartData(monthName, rollup != null ? value.apply(rollup) : null));
         }
 
         return chartData;
     }
 
+    @Cacheable(value = CacheConfig.DASHBOARD_MOVEMENTS, key = "#limit")
     @Transactional(readOnly = true)
     public Map<String, Object> getRecentMovements(int limit) {
         Map<String, Object> data = new HashMap<>();
@@ -186,10 +212,9 @@ public class DashboardService {
         return data;
     }
 
-    private List<MovementResponse> getRecentMovementsList(int limit) {
-        return movementRepository.findRecentMovements()
+    List<MovementResponse> getRecentMovementsList(int limit) {
+        return movementRepository.findRecentMovements(PageRequest.of(0, limit))
                 .stream()
-                .limit(limit)
                 .map(this::mapMovementToResponse)
                 .collect(Collectors.toList());
     }
@@ -197,43 +222,7 @@ public class DashboardService {
     @Transactional(readOnly = true)
     public Map<String, Object> getSystemAlerts() {
         Map<String, Object> alerts = new HashMap<>();
-        List<Map<String, Object>> alertList = new ArrayList<>();
-
-        // Check for ATMs needing maintenance
-        LocalDate maintenanceThreshold = LocalDate.now().plusDays(30);
-        List<Atm> needsMaintenance = atmRepository.findAll()
-                .stream()
-                .filter(atm -> atm.getNextMaintenanceDate() != null &&
-                        atm.getNextMaintenanceDate().isBefore(maintenanceThreshold))
-                .collect(Collectors.toList());
-
-        if (!needsMaintenance.isEmpty()) {
-            Map<String, Object> alert = new HashMap<>();
-            alert.put("type", "warning");
-            alert.put("message", needsMaintenance.size() + " ATMs need maintenance within 30 days");
-            alert.put("count", needsMaintenance.size());
-            alertList.add(alert);
-        }
-
-        // Check for pending approvals
-        Long pendingApprovals = costingRepository.countPendingApprovals();
-        if (pendingApprovals > 0) {
-            Map<String, Object> alert = new HashMap<>();
-            alert.put("type", "info");
-            alert.put("message", pendingApprovals + " costing approvals pending");
-            alert.put("count", pendingApprovals);
-            alertList.add(alert);
-        }
-
-        // Check for pending movements
-        Long pendingMovements = movementRepository.countByStatus(Movement.MovementStatus.PENDING);
-        if (pendingMovements > 0) {
-            Map<String, Object> alert = new HashMap<>();
-            alert.put("type", "info");
-            alert.put("message", pendingMovements + " ATM movements pending");
-            alert.put("count", pendingMovements);
-            alertList.add(alert);
-        }
+        List<Map<String, Object>> alertList = alertRuleEngine.evaluate();
 
         alerts.put("alerts", alertList);
         alerts.put("totalAlerts", alertList.size());
@@ -245,13 +234,11 @@ public class DashboardService {
     public Map<String, Object> getAtmStatusSummary() {
         Map<String, Object> summary = new HashMap<>();
 
-        List<String> statuses = atmRepository.findDistinctAssetStatuses();
-        for (String status : statuses) {
+        assetAggregateService.getAssetStatusCounts().forEach((status, count) -> {
             if (status != null) {
-                Long count = atmRepository.countByAssetStatus(status);
-                summary.put(status.toLowerCase(), count);
+                summary.merge(status.toLowerCase(), count, (a, b) -> (Long) a + (Long) b);
             }
-        }
+        });
 
         return summary;
     }
@@ -260,40 +247,90 @@ public class DashboardService {
     public Map<String, Object> getLocationDistribution() {
         Map<String, Object> data = new HashMap<>();
 
-        List<Atm> allAtms = atmRepository.findAll();
-        Map<String, Long> locationCounts = allAtms.stream()
-                .collect(Collectors.groupingBy(
-                        atm -> {
-                            String location = atm.getLocation();
-                            // Extract city from location
-                            if (location.contains(",")) {
-                                return location.substring(location.lastIndexOf(",") + 1).trim();
-                            }
-                            return location;
-                        },
-                        Collectors.counting()
-                ));
+        // City is derived on write (Atm.deriveCity), so this is one grouped query over idx_atms_city
+        Map<String, Long> locationCounts = new LinkedHashMap<>();
+        for (CityCount row : atmRepository.countGroupedByCity()) {
+            locationCounts.put(row.getCity(), row.getTotal());
+        }
 
         data.put("locations", locationCounts);
         return data;
     }
 
+    /**
+     * Cities ordered by ATM count (descending); page 0 with size N gives the top N.
+     */
+    @Cacheable(value = CacheConfig.DASHBOARD_ASSETS, key = "#root.methodName + ':' + #page + ':' + #size")
+    @Transactional(readOnly = true)
+    public Map<String, Object> getLocationDistribution(int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Page must be >= 0 and size must be >= 1");
+        }
+        Page<CityCount> cities = atmRepository.countGroupedByCity(PageRequest.of(page, size));
+
+        Map<String, Long> locationCounts = new LinkedHashMap<>();
+        cities.forEach(row -> locationCounts.put(row.getCity(), row.getTotal()));
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("locations", locationCounts);
+        data.put("page", cities.getNumber());
+        data.put("size", cities.getSize());
+        data.put("totalCities", cities.getTotalElements());
+        data.put("totalPages", cities.getTotalPages());
+        return data;
+    }
+
+    /**
+     * Final amount vs. amount received, overall, per vendor and per billing month.
+     */
+    @Cacheable(value = CacheConfig.DASHBOARD_ASSETS, key = "#root.methodName")
+    @Transactional(readOnly = true)
+    public Map<String, Object> getReceivables() {
+        Map<String, Object> data = new HashMap<>(receivablesRepository.findTotals());
+        data.put("byVendor", receivablesRepository.findTotalsByVendor());
+        data.put("byBillingMonth", receivablesRepository.findTotalsByBillingMonth());
+        return data;
+    }
+
+    @Cacheable(value = CacheConfig.DASHBOARD_STATS, key = "#root.methodName + ':' + #year + '-' + #month")
     @Transactional(readOnly = true)
     public Map<String, Object> getMonthlyStatistics(Integer year, Integer month) {
         Map<String, Object> stats = new HashMap<>();
 
         if (year == null) year = LocalDate.now().getYear();
         if (month == null) month = LocalDate.now().getMonthValue();
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Month must be between 1 and 12");
+        }
+
+        YearMonth yearMonth = YearMonth.of(year, month);
+        MonthlyAssetRollup rollup = assetRollupRepository.findMonthlyRollup(yearMonth.atDay(1))
+                .orElseThrow(() -> new ResourceNotFoundException("No statistics recorded for " + yearMonth));
+
+        Map<String, Long> movementStatus = new LinkedHashMap<>();
+        movementStatus.put("pending", rollup.getPendingMovements());
+        movementStatus.put("inTransit", rollup.getInTransitMovements());
+        movementStatus.put("delivered", rollup.getDeliveredMovements());
+        movementStatus.put("cancelled", rollup.getCancelledMovements());
 
         stats.put("year", year);
         stats.put("month", month);
-        stats.put("totalAtms", atmRepository.count());
-        stats.put("totalMovements", movementRepository.count());
-        stats.put("totalVendors", vendorRepository.count());
+        stats.put("asOf", rollup.getRollupDate());
+        stats.put("totalAtms", rollup.getTotalAssets());
+        stats.put("idleAtms", rollup.getIdleAssets());
+        stats.put("maintenanceAtms", rollup.getMaintenanceAssets());
+        stats.put("totalMovements", rollup.getTotalMovements());
+        stats.put("movementsInitiated", rollup.getMovementsInitiated());
+        stats.put("totalVendors", rollup.getTotalVendors());
+        stats.put("turnoverRate", rollup.getTurnoverRate());
+        stats.put("riskRate", rollup.getRiskRate());
+        stats.put("assetStatus", assetRollupRepository.findStatusCounts(rollup.getRollupDate()));
+        stats.put("movementStatus", movementStatus);
 
         return stats;
     }
 
+    @Cacheable(value = CacheConfig.DASHBOARD_STATS, key = "#root.methodName")
     @Transactional(readOnly = true)
     public Map<String, Object> getPerformanceMetrics() {
         Map<String, Object> metrics = new HashMap<>();
@@ -0,0 +1,362 @@
+package com.atm.management.service;
+
+import com.atm.management.dto.response.DashboardResponse;
+import com.atm.management.dto.response.MovementResponse;
+import com.atm.management.event.DataChangeEvent;
+import com.atm.management.event.DataChangeEvent.Domain;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory snapshot of the dashboard widgets, served without touching the database.
+ *
+ * Each section remembers which data domains it is computed from. A committed {@link DataChangeEvent}
+ * marks only the dependent sections dirty; they are rebuilt on the next read, so a burst of imports
+ * costs one rebuild. Sections are also rebuilt once older than app.dashboard.snapshot.max-age-seconds,
+ * which bounds staleness from writes that bypass the services (or replica lag during a rebuild).
+ *
+ * Sections are built from uncached DashboardService methods, so the snapshot is the only copy of this data and a
+ * rebuild racing a commit can never write a stale value back into a cache for the next rebuild to pick up.
+ *
+ * A rebuild that actually changes a section stamps it with the next value of a data-version counter.
+ * Together with a per-boot id this gives the strong ETag of the composite widgets endpoint.
+ */
+@Slf4j
+@Service
+public class DashboardSnapshotService {
+
+    private static final int RECENT_MOVEMENTS_HELD = 10;
+    private static final int DASHBOARD_RECENT_MOVEMENTS = 5;
+
+    enum Section {
+        KPIS(Domain.ATMS, Domain.MOVEMENTS, Domain.COSTINGS, Domain.VENDORS),
+        ASSET_TURNOVER(Domain.ROLLUPS),
+        ASSET_DISTRIBUTION(Domain.ATMS),
+        ATM_STATUS(Domain.ATMS),
+        VENDOR_ALLOCATION(Domain.VENDORS, Domain.ATMS),
+        RISK_TREND(Domain.ROLLUPS),
+        RECENT_MOVEMENTS(Domain.MOVEMENTS, Domain.ATMS),
+        ALERTS(Domain.ATMS, Domain.MOVEMENTS, Domain.COSTINGS),
+        LOCATIONS(Domain.ATMS);
+
+        private final Set<Domain> dependsOn;
+
+        Section(Domain first, Domain... rest) {
+            this.dependsOn = EnumSet.of(first, rest);
+        }
+    }
+
+    /**
+     * Widgets served by the composite endpoint, keyed by the name the client asks for.
+     */
+    public enum Widget {
+        KPIS("kpis", Section.KPIS),
+        TURNOVER("turnover", Section.ASSET_TURNOVER),
+        DISTRIBUTION("distribution", Section.ASSET_DISTRIBUTION),
+        VENDOR_ALLOCATION("vendor-allocation", Section.VENDOR_ALLOCATION),
+        RISK_TREND("risk-trend", Section.RISK_TREND),
+        RECENT_MOVEMENTS("recent-movements", Section.RECENT_MOVEMENTS),
+        ALERTS("alerts", Section.ALERTS),
+        ATM_STATUS("atm-status", Section.ATM_STATUS),
+        LOCATIONS("location-distribution", Section.LOCATIONS);
+
+        private final String key;
+        private final Section section;
+
+        Widget(String key, Section section) {
+            this.key = key;
+            this.section = section;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private final DashboardService dashboardService;
+    private final DashboardCacheEvictor dashboardCacheEvictor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long maxAgeSeconds;
+
+    private final Map<Section, Object> values = new ConcurrentHashMap<>();
+    private final Map<Section, LocalDateTime> builtAt = new ConcurrentHashMap<>();
+    private final Set<Section> dirty = ConcurrentHashMap.newKeySet();
+    private final Map<Section, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    public DashboardSnapshotService(DashboardService dashboardService,
+                                    DashboardCacheEvictor dashboardCacheEvictor,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.dashboard.snapshot.max-age-seconds:60}") long maxAgeSeconds) {
+        this.dashboardService = dashboardService;
+        this.dashboardCacheEvictor = dashboardCacheEvictor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.dirty.addAll(EnumSet.allOf(Section.class));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            ensureFresh(EnumSet.allOf(Section.class));
+        } catch (Exception e) {
+            log.warn("Dashboard snapshot warm-up failed, will build on first request: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        for (Section section : Section.values()) {
+            if (section.dependsOn.stream().anyMatch(event::affects)) {
+                dirty.add(section);
+            }
+        }
+    }
+
+    public DashboardResponse getDashboard() {
+        ensureFresh(EnumSet.of(Section.KPIS, Section.ASSET_TURNOVER, Section.ASSET_DISTRIBUTION,
+                Section.VENDOR_ALLOCATION, Section.RISK_TREND, Section.RECENT_MOVEMENTS, Section.ALERTS));
+
+        List<MovementResponse> recentMovements = get(Section.RECENT_MOVEMENTS);
+        return DashboardResponse.builder()
+                .kpis(get(Section.KPIS))
+                .assetTurnover(get(Section.ASSET_TURNOVER))
+                .assetDistribution(get(Section.ASSET_DISTRIBUTION))
+                .vendorAllocation(get(Section.VENDOR_ALLOCATION))
+                .riskTrend(get(Section.RISK_TREND))
+                .recentMovements(recentMovements.subList(0, Math.min(DASHBOARD_RECENT_MOVEMENTS, recentMovements.size())))
+                .alerts(get(Section.ALERTS))
+                .snapshotBuiltAt(getBuiltAt())
+                .build();
+    }
+
+    public Map<String, Object> getKPIs() {
+        return read(Section.KPIS);
+    }
+
+    public Map<String, Object> getAssetTurnoverData() {
+        return Map.of("data", read(Section.ASSET_TURNOVER));
+    }
+
+    public Map<String, Object> getAssetDistributionData() {
+        return Map.of("data", read(Section.ASSET_DISTRIBUTION));
+    }
+
+    public Map<String, Object> getVendorAllocationData() {
+        return Map.of("data", read(Section.VENDOR_ALLOCATION));
+    }
+
+    public Map<String, Object> getRiskTrendData() {
+        return Map.of("data", read(Section.RISK_TREND));
+    }
+
+    public Map<String, Object> getSystemAlerts() {
+        return read(Section.ALERTS);
+    }
+
+    public Map<String, Object> getAtmStatusSummary() {
+        return read(Section.ATM_STATUS);
+    }
+
+    public Map<String, Object> getLocationDistribution() {
+        return read(Section.LOCATIONS);
+    }
+
+    public Map<String, Object> getRecentMovements(int limit) {
+        if (limit > RECENT_MOVEMENTS_HELD) {
+            return dashboardService.getRecentMovements(limit);
+        }
+        List<MovementResponse> movements = read(Section.RECENT_MOVEMENTS);
+        return Map.of("movements", movements.subList(0, Math.min(Math.max(limit, 0), movements.size())));
+    }
+
+    /**
+     * Resolve widget names from the request; no names means every widget.
+     */
+    public Set<Widget> parseWidgets(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return EnumSet.allOf(Widget.class);
+        }
+        Set<Widget> widgets = EnumSet.noneOf(Widget.class);
+        for (String name : names) {
+            String key = name.trim().toLowerCase();
+            Widget widget = Arrays.stream(Widget.values())
+                    .filter(w -> w.key.equals(key))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown dashboard widget: " + name
+                            + ". Available: " + Arrays.stream(Widget.values()).map(Widget::getKey).toList()));
+            widgets.add(widget);
+        }
+        return widgets;
+    }
+
+    /**
+     * Strong ETag for the given widgets: boot id, the newest data version among their sections and the widget set.
+     * Brings the sections up to date first, so this is only database work when a section is stale.
+     * Take the tag before {@link #getWidgets(Set)} so a concurrent change can only make the body newer than its tag.
+     */
+    public String getWidgetsETag(Set<Widget> widgets) {
+        Set<Section> sections = sectionsOf(widgets);
+        ensureFresh(sections);
+
+        long version = sections.stream().mapToLong(section -> versions.getOrDefault(section, 0L)).max().orElse(0L);
+        long widgetMask = widgets.stream().mapToLong(widget -> 1L << widget.ordinal()).reduce(0L, (a, b) -> a | b);
+        return "\"" + bootId + "-" + version + "-" + Long.toHexString(widgetMask) + "\"";
+    }
+
+    /**
+     * The requested widgets keyed by name, each with the same body as its individual endpoint.
+     */
+    public Map<String, Object> getWidgets(Set<Widget> widgets) {
+        ensureFresh(sectionsOf(widgets));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (Widget widget : widgets) {
+            result.put(widget.key, switch (widget) {
+                case KPIS -> getKPIs();
+                case TURNOVER -> getAssetTurnoverData();
+                case DISTRIBUTION -> getAssetDistributionData();
+                case VENDOR_ALLOCATION -> getVendorAllocationData();
+                case RISK_TREND -> getRiskTrendData();
+                case RECENT_MOVEMENTS -> getRecentMovements(DASHBOARD_RECENT_MOVEMENTS);
+                case ALERTS -> getSystemAlerts();
+                case ATM_STATUS -> getAtmStatusSummary();
+                case LOCATIONS -> getLocationDistribution();
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Keys of the widgets computed from any of the given data domains.
+     */
+    public List<String> widgetKeysAffectedBy(Set<Domain> domains) {
+        return Arrays.stream(Widget.values())
+                .filter(widget -> widget.section.dependsOn.stream().anyMatch(domains::contains))
+                .map(Widget::getKey)
+                .toList();
+    }
+
+    /**
+     * Drop the dashboard caches, discard every section and rebuild the whole snapshot now.
+     */
+    public DashboardResponse refresh() {
+        dashboardCacheEvictor.evictAll();
+        dirty.addAll(EnumSet.allOf(Section.class));
+        ensureFresh(EnumSet.allOf(Section.class));
+        return getDashboard();
+    }
+
+    /**
+     * Build time of the oldest section currently in the snapshot.
+     */
+    public LocalDateTime getBuiltAt() {
+        return builtAt.values().stream().min(Comparator.naturalOrder()).orElse(null);
+    }
+
+    public Map<String, Object> getSnapshotInfo() {
+        Map<String, Object> sections = new TreeMap<>();
+        builtAt.forEach((section, time) -> sections.put(section.name(), time));
+
+        Map<String, Object> info = new HashMap<>();
+        info.put("builtAt", getBuiltAt());
+        info.put("sections", sections);
+        info.put("dirtySections", dirty.stream().map(Section::name).sorted().toList());
+        info.put("maxAgeSeconds", maxAgeSeconds);
+        info.put("dataVersion", dataVersion.get());
+        return info;
+    }
+
+    private <T> T read(Section section) {
+        ensureFresh(EnumSet.of(section));
+        return get(section);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Section section) {
+        return (T) values.get(section);
+    }
+
+    private void ensureFresh(Set<Section> needed) {
+        if (needed.stream().noneMatch(this::isStale)) {
+            return;
+        }
+        synchronized (this) {
+            Set<Section> toBuild = EnumSet.noneOf(Section.class);
+            for (Section section : needed) {
+                if (isStale(section)) {
+                    toBuild.add(section);
+                }
+            }
+            if (toBuild.isEmpty()) {
+                return;
+            }
+
+            // Clear first so a change committed while we rebuild marks the section dirty again
+            dirty.removeAll(toBuild);
+            try {
+                Map<Section, Object> rebuilt = readOnlyTransaction.execute(status -> {
+                    Map<Section, Object> result = new EnumMap<>(Section.class);
+                    for (Section section : toBuild) {
+                        result.put(section, build(section));
+                    }
+                    return result;
+                });
+                LocalDateTime now = LocalDateTime.now();
+                rebuilt.forEach((section, value) -> {
+                    if (!value.equals(values.get(section))) {
+                        versions.put(section, dataVersion.incrementAndGet());
+                    }
+                    values.put(section, value);
+                    builtAt.put(section, now);
+                });
+                log.debug("Rebuilt dashboard snapshot sections {}", toBuild);
+            } catch (RuntimeException e) {
+                dirty.addAll(toBuild);
+                throw e;
+            }
+        }
+    }
+
+    private static Set<Section> sectionsOf(Set<Widget> widgets) {
+        Set<Section> sections = EnumSet.noneOf(Section.class);
+        widgets.forEach(widget -> sections.add(widget.section));
+        return sections;
+    }
+
+    private boolean isStale(Section section) {
+        if (dirty.contains(section)) {
+            return true;
+        }
+        LocalDateTime time = builtAt.get(section);
+        return time == null || time.isBefore(LocalDateTime.now().minusSeconds(maxAgeSeconds));
+    }
+
+    private Object build(Section section) {
+        return switch (section) {
+            case KPIS -> Collections.unmodifiableMap(dashboardService.getKPIs());
+            case ASSET_TURNOVER -> List.copyOf(dashboardService.getAssetTurnoverDataList());
+            case ASSET_DISTRIBUTION -> List.copyOf(dashboardService.getAssetDistributionDataList());
+            case ATM_STATUS -> Collections.unmodifiableMap(dashboardService.getAtmStatusSummary());
+            case VENDOR_ALLOCATION -> List.copyOf(dashboardService.getVendorAllocationDataList());
+            case RISK_TREND -> List.copyOf(dashboardService.getRiskTrendDataList());
+            case RECENT_MOVEMENTS -> List.copyOf(dashboardService.getRecentMovementsList(RECENT_MOVEMENTS_HELD));
+            case ALERTS -> Collections.unmodifiableMap(dashboardService.getSystemAlerts());
+            case LOCATIONS -> Collections.unmodifiableMap(dashboardService.getLocationDistribution());
+        };
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -481,7 +482,14 @@ public class ExcelParsingService {
      */
     public List<EmailRecipient> extractAllRecipients(MultipartFile file) {
         List<EmailRecipient> recipients = new ArrayList<>();
+        forEachRecipient(file, recipients::add);
+        return recipients;
+    }
 
+    /**
+     * Hand each parsed row to the consumer as it is read, without collecting them into a list
+     */
+    public void forEachRecipient(MultipartFile file, Consumer<EmailRecipient> consumer) {
         try (InputStream inputStream = file.getInputStream();
              Workbook workbook = new XSSFWorkbook(inputStream)) {
 
@@ -503,7 +511,7 @@ public class ExcelParsingService {
                         recipient.setVendorName("Unknown");
                     }
 
-                    recipients.add(recipient);
+                    consumer.accept(recipient);
                 } catch (Exception e) {
                     log.error("Error parsing row {}", i, e);
                 }
@@ -511,8 +519,6 @@ public class ExcelParsingService {
         } catch (Exception e) {
             log.error("Error extracting recipients from Excel", e);
         }
-
-        return recipients;
     }
 
     /**
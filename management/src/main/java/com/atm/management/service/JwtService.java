@@ -1,9 +1,11 @@
 package com.atm.management.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -12,6 +14,7 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -26,8 +29,39 @@ public class JwtService {
     @Value("${jwt.refresh-expiration:604800000}")
     private Long refreshExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Built once: the key never changes and JwtParser is immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
+    /**
+     * Verify the token once and return its claims, so callers needing several values parse it only once.
+     * @throws IllegalArgumentException if the signature is invalid, the token is malformed or it has expired
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (Exception e) {
+            log.error("Token parsing failed: {}", e.getMessage());
+            throw new IllegalArgumentException("Invalid token");
+        }
+    }
+
+    /**
+     * Like {@link #parseClaims(String)}, but empty instead of throwing when the token is not valid.
+     */
+    public Optional<Claims> parseValidClaims(String token) {
+        try {
+            return Optional.of(parser.parseSignedClaims(token).getPayload());
+        } catch (Exception e) {
+            log.error("Token validation failed: {}", e.getMessage());
+            return Optional.empty();
+        }
     }
 
     public String generateToken(String email, String role) {
@@ -45,7 +79,7 @@ public class JwtService {
                 .setSubject(email)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -63,68 +97,24 @@ public class JwtService {
                 .setSubject(email)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public String extractEmail(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            return claims.getSubject();
-        } catch (Exception e) {
-            log.error("Error extracting email from token: {}", e.getMessage());
-            throw new IllegalArgumentException("Invalid token");
-        }
+        return parseClaims(token).getSubject();
     }
 
     public String extractRole(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            return claims.get("role", String.class);
-        } catch (Exception e) {
-            log.error("Error extracting role from token: {}", e.getMessage());
-            throw new IllegalArgumentException("Invalid token");
-        }
+        return parseClaims(token).get("role", String.class);
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-
-            log.debug("Token validation successful");
-            return true;
-        } catch (Exception e) {
-            log.error("Token validation failed: {}", e.getMessage());
-            return false;
-        }
+        return parseValidClaims(token).isPresent();
     }
 
     public Date getExpirationDate(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            return claims.getExpiration();
-        } catch (Exception e) {
-            log.error("Error extracting expiration date from token: {}", e.getMessage());
-            throw new IllegalArgumentException("Invalid token");
-        }
+        return parseClaims(token).getExpiration();
     }
 
     public boolean isTokenExpired(String token) {
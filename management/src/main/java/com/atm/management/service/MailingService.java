@@ -1,8 +1,18 @@
 package com.atm.management.service;
 
+import com.atm.management.dto.request.TemplateEmailRequest;
 import com.atm.management.dto.response.VendorDataResponse;
+import com.atm.management.exception.ResourceNotFoundException;
+import com.atm.management.model.Atm;
 import com.atm.management.model.EmailRecipient;
 import com.atm.management.model.UploadedFile;
+import com.atm.management.repository.AtmRepository;
+import com.atm.management.repository.OutboxEntry;
+import com.atm.management.service.mail.EmailLogService;
+import com.atm.management.service.mail.MailOutboxService;
+import com.atm.management.service.mail.MailTemplate;
+import com.atm.management.service.mail.MailTemplateRegistry;
+import com.atm.management.service.mail.VendorDigestBuilder;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +34,11 @@ public class MailingService {
     private final ExcelParsingService excelParsingService;
     private final AssetCreationService assetCreationService;
     private final MovementCreationService movementCreationService;
+    private final MailOutboxService mailOutboxService;
+    private final EmailLogService emailLogService;
+    private final MailTemplateRegistry mailTemplateRegistry;
+    private final VendorDigestBuilder vendorDigestBuilder;
+    private final AtmRepository atmRepository;
 
     @Value("${spring.mail.username:noreply@assetflow.com}")
     private String fromEmail;
@@ -34,15 +49,25 @@ public class MailingService {
     @Autowired(required = false)
     public MailingService(JavaMailSender mailSender, ExcelParsingService excelParsingService,
                          AssetCreationService assetCreationService,
-                         MovementCreationService movementCreationService) {
+                         MovementCreationService movementCreationService,
+                         MailOutboxService mailOutboxService,
+                         EmailLogService emailLogService,
+                         MailTemplateRegistry mailTemplateRegistry,
+                         VendorDigestBuilder vendorDigestBuilder,
+                         AtmRepository atmRepository) {
         this.mailSender = mailSender;
         this.excelParsingService = excelParsingService;
         this.assetCreationService = assetCreationService;
         this.movementCreationService = movementCreationService;
+        this.mailOutboxService = mailOutboxService;
+        this.emailLogService = emailLogService;
+        this.mailTemplateRegistry = mailTemplateRegistry;
+        this.vendorDigestBuilder = vendorDigestBuilder;
+        this.atmRepository = atmRepository;
     }
 
     /**
-     * Send password reset email
+     * Queue password reset email
      */
     public void sendPasswordResetEmail(String to, String name, String resetToken) {
         if (!isMailEnabled()) {
@@ -50,22 +75,11 @@ public class MailingService {
             return;
         }
 
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject("Password Reset Request - AssetFlow");
-            message.setText(buildPasswordResetEmail(name, resetToken));
-
-            mailSender.send(message);
-            log.info("Password reset email sent to: {}", to);
-        } catch (Exception e) {
-            log.error("Failed to send password reset email to: {}", to, e);
-        }
+        enqueueTemplate("password_reset", to, Map.of("name", name, "resetToken", resetToken));
     }
 
     /**
-     * Send welcome email
+     * Queue welcome email
      */
     public void sendWelcomeEmail(String to, String name) {
         if (!isMailEnabled()) {
@@ -73,45 +87,24 @@ public class MailingService {
             return;
         }
 
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject("Welcome to AssetFlow");
-            message.setText(buildWelcomeEmail(name));
-
-            mailSender.send(message);
-            log.info("Welcome email sent to: {}", to);
-        } catch (Exception e) {
-            log.error("Failed to send welcome email to: {}", to, e);
-        }
+        enqueueTemplate("welcome", to, Map.of("name", name));
     }
 
     /**
-     * Send notification email
+     * Queue notification email
+     * @return batch id, or null when email is disabled
      */
-    public void sendNotificationEmail(String to, String subject, String content) {
+    public UUID sendNotificationEmail(String to, String subject, String content) {
         if (!isMailEnabled()) {
             log.info("Email disabled. Notification for {}: {}", to, subject);
-            return;
+            return null;
         }
 
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(content);
-
-            mailSender.send(message);
-            log.info("Notification email sent to: {}", to);
-        } catch (Exception e) {
-            log.error("Failed to send notification email to: {}", to, e);
-        }
+        return mailOutboxService.enqueue(to, subject, content);
     }
 
     /**
-     * Send bulk emails to multiple recipients
+     * Queue bulk emails to multiple recipients; delivery is tracked under the returned batch id
      */
     public Object sendBulkEmails(List<String> recipients, String subject, String content) {
         if (!isMailEnabled()) {
@@ -119,37 +112,88 @@ public class MailingService {
             return "Email service is disabled";
         }
 
-        int success = 0;
-        int failed = 0;
+        UUID batchId = mailOutboxService.enqueue(recipients, subject, content);
 
-        for (String recipient : recipients) {
-            try {
-                sendNotificationEmail(recipient, subject, content);
-                success++;
-            } catch (Exception e) {
-                log.error("Failed to send bulk email to: {}", recipient, e);
-                failed++;
-            }
+        Map<String, Object> result = new HashMap<>();
+        result.put("batchId", batchId);
+        result.put("queued", recipients.size());
+        result.put("message", String.format("Queued %d emails for delivery", recipients.size()));
+        return result;
+    }
+
+    /**
+     * Render a template once per recipient and queue the results as one batch. ATM and vendor variables are
+     * loaded for all recipients in a single query up front.
+     */
+    public Object sendTemplatedEmails(String templateName, List<TemplateEmailRequest.Recipient> recipients) {
+        if (!isMailEnabled()) {
+            log.info("Email disabled. Template {} to {} recipients", templateName, recipients.size());
+            return "Email service is disabled";
+        }
+
+        MailTemplate template = mailTemplateRegistry.get(templateName);
+        Set<Long> atmIds = new HashSet<>();
+        recipients.stream().map(TemplateEmailRequest.Recipient::getAtmId).filter(Objects::nonNull).forEach(atmIds::add);
+        Map<Long, Atm> atms = new HashMap<>();
+        if (!atmIds.isEmpty()) {
+            atmRepository.findAllWithVendorByIdIn(atmIds).forEach(atm -> atms.put(atm.getId(), atm));
         }
 
-        log.info("Bulk emails sent to {} recipients ({} success, {} failed)", recipients.size(), success, failed);
-        return String.format("Sent to %d recipients (%d success, %d failed)", recipients.size(), success, failed);
+        List<OutboxEntry> entries = renderAll(template, recipients, atms);
+        UUID batchId = mailOutboxService.enqueueAll(entries);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("batchId", batchId);
+        result.put("queued", entries.size());
+        result.put("message", String.format("Queued %d emails for delivery", entries.size()));
+        return result;
     }
 
     /**
-     * Send single email
+     * Render one message per recipient from preloaded ATM data; does not touch the database.
+     */
+    public List<OutboxEntry> renderAll(MailTemplate template, List<TemplateEmailRequest.Recipient> recipients,
+                                       Map<Long, Atm> atms) {
+        List<OutboxEntry> entries = new ArrayList<>(recipients.size());
+        for (TemplateEmailRequest.Recipient recipient : recipients) {
+            Map<String, Object> values = new HashMap<>();
+            if (recipient.getAtmId() != null) {
+                Atm atm = atms.get(recipient.getAtmId());
+                if (atm == null) {
+                    throw new ResourceNotFoundException("ATM not found with id: " + recipient.getAtmId());
+                }
+                putAtmValues(values, atm);
+            }
+            values.put("email", recipient.getEmail());
+            if (recipient.getName() != null) {
+                values.put("name", recipient.getName());
+            }
+            if (recipient.getVariables() != null) {
+                values.putAll(recipient.getVariables());
+            }
+            entries.add(new OutboxEntry(recipient.getEmail(), template.renderSubject(values), template.renderBody(values),
+                    template.getName()));
+        }
+        return entries;
+    }
+
+    /**
+     * Queue single email
      */
     public Object sendSingleEmail(String to, String subject, String content) {
         if (!isMailEnabled()) {
             return "Email service is disabled";
         }
 
-        try {
-            sendNotificationEmail(to, subject, content);
-            return "Email sent successfully to " + to;
-        } catch (Exception e) {
-            return "Failed to send email: " + e.getMessage();
-        }
+        UUID batchId = sendNotificationEmail(to, subject, content);
+        return "Email queued for delivery to " + to + " (batch " + batchId + ")";
+    }
+
+    /**
+     * Delivery progress of a queued batch
+     */
+    public Map<String, Object> getBatchStatus(UUID batchId) {
+        return mailOutboxService.getBatchStatus(batchId);
     }
 
     /**
@@ -179,14 +223,19 @@ public class MailingService {
      * Get email templates
      */
     public Object getEmailTemplates() {
-        return List.of(
-                "password_reset",
-                "welcome",
-                "notification",
-                "maintenance_reminder",
-                "costing_notification",
-                "movement_notification"
-        );
+        return mailTemplateRegistry.getAll().stream()
+                .map(template -> Map.of(
+                        "name", template.getName(),
+                        "variables", template.getVariables(),
+                        "source", template.getSource()))
+                .toList();
+    }
+
+    /**
+     * Recompile the mail templates from disk
+     */
+    public int reloadEmailTemplates() {
+        return mailTemplateRegistry.reload();
     }
 
     /**
@@ -198,24 +247,9 @@ public class MailingService {
             return "Email service is disabled";
         }
 
-        String subject = "ATM Movement Notification";
-        String content = String.format("""
-            Hello,
-            
-            This is to notify you about an ATM movement:
-            
-            ATM ID: %d
-            Movement Type: %s
-            
-            Please check the system for more details.
-            
-            Best regards,
-            AssetFlow Team
-            """, atmId, movementType);
-
         try {
-            sendNotificationEmail(recipientEmail, subject, content);
-            return "Movement notification sent successfully";
+            enqueueTemplate("movement_notification", recipientEmail, Map.of("atmId", atmId, "movementType", movementType));
+            return "Movement notification queued for delivery";
         } catch (Exception e) {
             return "Failed to send notification: " + e.getMessage();
         }
@@ -230,25 +264,10 @@ public class MailingService {
             return "Email service is disabled";
         }
 
-        String subject = "ATM Costing Notification";
-        String content = String.format("""
-            Hello,
-            
-            This is to notify you about an ATM costing:
-            
-            ATM ID: %d
-            Costing Type: %s
-            Amount: $%.2f
-            
-            Please check the system for more details.
-            
-            Best regards,
-            AssetFlow Team
-            """, atmId, costingType, amount);
-
         try {
-            sendNotificationEmail(recipientEmail, subject, content);
-            return "Costing notification sent successfully";
+            enqueueTemplate("costing_notification", recipientEmail,
+                    Map.of("atmId", atmId, "costingType", costingType, "amount", String.format("%.2f", amount)));
+            return "Costing notification queued for delivery";
         } catch (Exception e) {
             return "Failed to send notification: " + e.getMessage();
         }
@@ -263,43 +282,27 @@ public class MailingService {
             return "Email service is disabled";
         }
 
-        String subject = "ATM Maintenance Reminder";
-        String content = String.format("""
-            Hello,
-            
-            This is a reminder for upcoming ATM maintenance:
-            
-            ATM ID: %d
-            Next Maintenance Date: %s
-            
-            Please schedule the maintenance accordingly.
-            
-            Best regards,
-            AssetFlow Team
-            """, atmId, nextMaintenanceDate);
-
         try {
-            sendNotificationEmail(recipientEmail, subject, content);
-            return "Maintenance reminder sent successfully";
+            enqueueTemplate("maintenance_reminder", recipientEmail,
+                    Map.of("atmId", atmId, "nextMaintenanceDate", nextMaintenanceDate));
+            return "Maintenance reminder queued for delivery";
         } catch (Exception e) {
             return "Failed to send reminder: " + e.getMessage();
         }
     }
 
     /**
-     * Get email history (placeholder - implement with database if needed)
+     * Get email delivery history, newest first (keyset pagination on the log id)
      */
-    public Object getEmailHistory(int page, int size) {
-        log.info("Email history requested - page: {}, size: {}", page, size);
-        return List.of("No email history available - feature not implemented yet");
+    public Map<String, Object> getEmailHistory(Long before, String recipient, int size) {
+        return emailLogService.getHistory(before, recipient, size);
     }
 
     /**
-     * Get email statistics (placeholder - implement with database if needed)
+     * Get email statistics for the last days
      */
-    public Object getEmailStatistics() {
-        log.info("Email statistics requested");
-        return "Email statistics not available - feature not implemented yet";
+    public Map<String, Object> getEmailStatistics(int days) {
+        return emailLogService.getStatistics(days);
     }
 
     /**
@@ -392,36 +395,48 @@ public class MailingService {
     }
 
     /**
-     * Send bulk emails to recipients from Excel file - UPDATED to use Option 1
+     * Queue one digest email per vendor in the sheet instead of one email per row. Rows are grouped by vendor
+     * email as they are read; rows without an email are counted and skipped.
      */
-    public Object sendBulkEmailsFromExcel(MultipartFile file, String subject, String content) {
+    public Object sendBulkEmailsFromExcel(MultipartFile file, String subject, String content, boolean attachRows) {
         if (!isMailEnabled()) {
             return "Email service is disabled";
         }
 
-        try {
-            // Use parseAndValidateExcelFile to get vendor data
-            VendorDataResponse vendorResponse = excelParsingService.parseAndValidateExcelFile(file);
-
-            if (!vendorResponse.isValid() || vendorResponse.getVendors() == null || vendorResponse.getVendors().isEmpty()) {
-                return String.format("No valid vendor data found in Excel file. %s", vendorResponse.getMessage());
+        Map<String, List<EmailRecipient>> rowsByEmail = new LinkedHashMap<>();
+        Map<String, String> vendorNames = new HashMap<>();
+        int[] skipped = {0};
+        excelParsingService.forEachRecipient(file, row -> {
+            String email = row.getVendorEmail();
+            if (email == null || email.isBlank()) {
+                skipped[0]++;
+                return;
             }
+            String key = email.trim().toLowerCase();
+            rowsByEmail.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+            vendorNames.putIfAbsent(key, row.getVendorName());
+        });
+        if (rowsByEmail.isEmpty()) {
+            throw new IllegalArgumentException("No rows with a vendor email address found in the Excel file");
+        }
 
-            // Note: This method assumes vendors have emails registered separately
-            // For now, return information about parsed vendors
-            String result = String.format(
-                    "Vendor data parsed successfully. Found %d unique vendors with %d total rows. " +
-                    "To send emails, vendors need to be registered with email addresses first.",
-                    vendorResponse.getUniqueVendors(), vendorResponse.getTotalRows()
-            );
-
-            log.info("Bulk email preparation completed: {}", result);
-            return result;
-
-        } catch (Exception e) {
-            log.error("Error sending bulk emails from Excel", e);
-            return "Error processing Excel file: " + e.getMessage();
+        List<OutboxEntry> digests = new ArrayList<>(rowsByEmail.size());
+        int rows = 0;
+        for (Map.Entry<String, List<EmailRecipient>> vendor : rowsByEmail.entrySet()) {
+            digests.add(vendorDigestBuilder.build(vendor.getKey(), vendorNames.get(vendor.getKey()), vendor.getValue(),
+                    subject, content, attachRows));
+            rows += vendor.getValue().size();
         }
+        UUID batchId = mailOutboxService.enqueueAll(digests);
+        log.info("Queued {} vendor digests covering {} rows ({} rows without email skipped)", digests.size(), rows, skipped[0]);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("batchId", batchId);
+        result.put("queued", digests.size());
+        result.put("rows", rows);
+        result.put("skippedRows", skipped[0]);
+        result.put("message", String.format("Queued %d vendor digests covering %d rows", digests.size(), rows));
+        return result;
     }
 
     /**
@@ -444,36 +459,25 @@ public class MailingService {
         return mailEnabled && mailSender != null;
     }
 
-    private String buildPasswordResetEmail(String name, String resetToken) {
-        return String.format("""
-            Hello %s,
-            
-            We received a request to reset your password for your AssetFlow account.
-            
-            Click the link below to reset your password:
-            http://localhost:5174/reset-password?token=%s
-            
-            This link will expire in 1 hour.
-            
-            If you didn't request a password reset, please ignore this email.
-            
-            Best regards,
-            AssetFlow Team
-            """, name, resetToken);
+    private UUID enqueueTemplate(String templateName, String to, Map<String, ?> values) {
+        MailTemplate template = mailTemplateRegistry.get(templateName);
+        return mailOutboxService.enqueue(
+                new OutboxEntry(to, template.renderSubject(values), template.renderBody(values), templateName));
     }
 
-    private String buildWelcomeEmail(String name) {
-        return String.format("""
-            Hello %s,
-            
-            Welcome to AssetFlow!
-            
-            Your account has been successfully created. You can now log in and start managing your assets.
-            
-            If you have any questions, please don't hesitate to contact us.
-            
-            Best regards,
-            AssetFlow Team
-            """, name);
+    private static void putAtmValues(Map<String, Object> values, Atm atm) {
+        values.put("atmId", atm.getId());
+        values.put("atmName", atm.getName());
+        values.put("serialNumber", atm.getSerialNumber());
+        values.put("location", atm.getLocation());
+        values.put("city", atm.getCity());
+        values.put("assetStatus", atm.getAssetStatus());
+        values.put("billingMonth", atm.getBillingMonth());
+        values.put("finalAmount", atm.getFinalAmount() != null ? String.format("%.2f", atm.getFinalAmount()) : "0.00");
+        values.put("nextMaintenanceDate", atm.getNextMaintenanceDate());
+        if (atm.getVendor() != null) {
+            values.put("vendorId", atm.getVendor().getId());
+            values.put("vendorName", atm.getVendor().getName());
+        }
     }
-}
\ No newline at end of file
+}
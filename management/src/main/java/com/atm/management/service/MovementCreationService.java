@@ -1,5 +1,7 @@
 package com.atm.management.service;
 
+import com.atm.management.event.DataChangeEvent;
+import com.atm.management.event.DataChangeEvent.Domain;
 import com.atm.management.model.Atm;
 import com.atm.management.model.Movement;
 import com.atm.management.model.EmailRecipient;
@@ -8,6 +10,7 @@ import com.atm.management.repository.AtmRepository;
 import com.atm.management.repository.MovementRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +29,7 @@ public class MovementCreationService {
 
     private final MovementRepository movementRepository;
     private final AtmRepository atmRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Create movements from parsed Excel email recipients
@@ -133,6 +137,8 @@ public class MovementCreationService {
             saveMovementBatch(movementBatch, createdMovements);
         }
 
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.MOVEMENTS));
+
         result.put("success", errors.isEmpty());
         result.put("totalProcessed", recipients.size());
         result.put("movementsCreated", createdMovements.size());
@@ -306,6 +312,7 @@ public class MovementCreationService {
                     m.setActualDelivery(LocalDate.now());
                 }
                 movementRepository.save(m);
+                eventPublisher.publishEvent(DataChangeEvent.of(Domain.MOVEMENTS));
             } catch (IllegalArgumentException e) {
                 log.error("Invalid movement status: {}", status);
             }
@@ -0,0 +1,108 @@
+package com.atm.management.service;
+
+import com.atm.management.exception.ResourceNotFoundException;
+import com.atm.management.repository.MovementPartitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MovementPartitionService {
+
+    private final MovementPartitionRepository partitionRepository;
+
+    @Value("${app.movements.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintainPartitions();
+    }
+
+    /**
+     * Keep partitions in place for the current month and the next few, and split out any month
+     * that has accumulated in the default partition (e.g. back-dated or far-future imports).
+     * Archived (detached) months are never re-created: new rows for them are rejected by the database, and any
+     * that reached the default partition before the month was archived stay there with a warning.
+     */
+    @Scheduled(cron = "${app.movements.partitions.maintenance-cron:0 15 0 * * *}")
+    public void maintainPartitions() {
+        try {
+            LocalDate firstOfMonth = LocalDate.now().withDayOfMonth(1);
+            for (int i = 0; i <= monthsAhead; i++) {
+                partitionRepository.ensurePartition(firstOfMonth.plusMonths(i));
+            }
+            for (LocalDate month : partitionRepository.findMonthsInDefaultPartition()) {
+                String partitionName = partitionName(YearMonth.from(month));
+                long rows = partitionRepository.countInDefaultPartition(month);
+                if (partitionRepository.isArchived(month)) {
+                    log.warn("{} rows for archived month {} stay in movements_default; {} is not re-created",
+                            rows, YearMonth.from(month), partitionName);
+                    continue;
+                }
+                String partition = partitionRepository.ensurePartition(month);
+                log.info("Moved {} rows from movements_default into {}", rows, partition);
+            }
+        } catch (Exception e) {
+            log.error("Movement partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getPartitions() {
+        return partitionRepository.findPartitions();
+    }
+
+    /**
+     * Detach a past month's partition so it can be archived (pg_dump) and dropped.
+     * The month is recorded as archived, so the database rejects any later movement dated in it instead of
+     * re-creating the partition around it.
+     * @param month in yyyy-MM format
+     */
+    @Transactional
+    public Map<String, Object> detachPartition(String month) {
+        YearMonth yearMonth;
+        try {
+            yearMonth = YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid month: " + month + ". Expected format yyyy-MM");
+        }
+        if (!yearMonth.isBefore(YearMonth.now())) {
+            throw new IllegalArgumentException("Only partitions for past months can be detached");
+        }
+
+        String partitionName = partitionName(yearMonth);
+        if (!partitionRepository.isAttached(partitionName)) {
+            throw new ResourceNotFoundException("No attached movement partition for " + month);
+        }
+
+        partitionRepository.detachPartition(partitionName);
+        partitionRepository.markArchived(yearMonth.atDay(1), partitionName);
+        log.info("Detached movement partition {}", partitionName);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("message", "Partition detached; archive and drop table " + partitionName + " when ready. "
+                + "New movements dated " + yearMonth + " are rejected");
+        result.put("partition", partitionName);
+        result.put("month", yearMonth.toString());
+        return result;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("movements_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+}
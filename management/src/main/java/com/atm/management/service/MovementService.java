@@ -3,12 +3,16 @@ package com.atm.management.service;
 import com.atm.management.dto.request.MovementRequest;
 import com.atm.management.dto.response.AtmSummary;
 import com.atm.management.dto.response.MovementResponse;
+import com.atm.management.event.DataChangeEvent;
+import com.atm.management.event.DataChangeEvent.Domain;
 import com.atm.management.exception.ResourceNotFoundException;
 import com.atm.management.model.Atm;
 import com.atm.management.model.Movement;
 import com.atm.management.repository.AtmRepository;
 import com.atm.management.repository.MovementRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +28,7 @@ public class MovementService {
 
     private final MovementRepository movementRepository;
     private final AtmRepository atmRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<MovementResponse> getAllMovements() {
@@ -68,9 +73,8 @@ public class MovementService {
 
     @Transactional(readOnly = true)
     public List<MovementResponse> getRecentMovements(int limit) {
-        return movementRepository.findRecentMovements()
+        return movementRepository.findRecentMovements(PageRequest.of(0, limit))
                 .stream()
-                .limit(limit)
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -86,6 +90,7 @@ public class MovementService {
         movement.setInitiatedDate(LocalDate.now());
 
         Movement savedMovement = movementRepository.save(movement);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.MOVEMENTS));
         return mapToResponse(savedMovement);
     }
 
@@ -99,6 +104,7 @@ public class MovementService {
 
         mapRequestToEntity(request, movement, atm);
         Movement updatedMovement = movementRepository.save(movement);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.MOVEMENTS));
         return mapToResponse(updatedMovement);
     }
 
@@ -114,6 +120,7 @@ public class MovementService {
         }
 
         Movement updatedMovement = movementRepository.save(movement);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.MOVEMENTS));
         return mapToResponse(updatedMovement);
     }
 
@@ -126,6 +133,7 @@ public class MovementService {
         movement.setActualDelivery(LocalDate.now());
 
         Movement updatedMovement = movementRepository.save(movement);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.MOVEMENTS));
         return mapToResponse(updatedMovement);
     }
 
@@ -135,6 +143,7 @@ public class MovementService {
             throw new ResourceNotFoundException("Movement not found with id: " + id);
         }
         movementRepository.deleteById(id);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.MOVEMENTS));
     }
 
     @Transactional(readOnly = true)
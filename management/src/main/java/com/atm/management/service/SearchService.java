@@ -0,0 +1,48 @@
+package com.atm.management.service;
+
+import com.atm.management.dto.response.SearchResultResponse;
+import com.atm.management.dto.response.SearchResultResponse.ResultType;
+import com.atm.management.repository.SearchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+
+    private final SearchRepository searchRepository;
+
+    @Transactional(readOnly = true)
+    public List<SearchResultResponse> search(String query, List<String> types, Integer limit) {
+        if (query == null || query.codePoints().noneMatch(Character::isLetterOrDigit)) {
+            throw new IllegalArgumentException("Search query must contain at least one letter or digit");
+        }
+
+        // Tokenised by PostgreSQL's own parser (SearchRepository.PREFIX_QUERY), the same one that built the index
+        int effectiveLimit = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        return searchRepository.search(query, parseTypes(types), effectiveLimit);
+    }
+
+    private Set<ResultType> parseTypes(List<String> types) {
+        if (types == null || types.isEmpty()) {
+            return EnumSet.allOf(ResultType.class);
+        }
+        Set<ResultType> parsed = EnumSet.noneOf(ResultType.class);
+        for (String type : types) {
+            try {
+                parsed.add(ResultType.valueOf(type.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown search type: " + type);
+            }
+        }
+        return parsed;
+    }
+}
@@ -2,6 +2,7 @@ package com.atm.management.service;
 
 import com.atm.management.dto.response.UploadedFileResponse;
 import com.atm.management.dto.response.DeletionSummaryResponse;
+import com.atm.management.event.DataChangeEvent;
 import com.atm.management.model.UploadedFile;
 import com.atm.management.repository.UploadedFileRepository;
 import com.atm.management.repository.VendorRepository;
@@ -11,6 +12,7 @@ import com.atm.management.repository.CostingRepository;
 import com.atm.management.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +30,7 @@ public class UploadedFileService {
     private final AtmRepository atmRepository;
     private final MovementRepository movementRepository;
     private final CostingRepository costingRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UploadedFile saveUploadedFile(UploadedFile uploadedFile) {
         return uploadedFileRepository.save(uploadedFile);
@@ -85,6 +88,7 @@ public class UploadedFileService {
         // Use deleteById so JPA re-fetches a fresh (clean) entity after context was cleared by bulk deletes above
         uploadedFileRepository.deleteById(id);
         log.info("Uploaded file deleted successfully");
+        eventPublisher.publishEvent(DataChangeEvent.all());
         
         // Return summary of deletions (total movements = direct + from ATMs)
         int totalMovementsDeleted = movementsDeletedFromAtms + movementsDeletedDirect;
@@ -1,14 +1,21 @@
 package com.atm.management.service;
 
+import com.atm.management.config.CacheConfig;
 import com.atm.management.dto.request.VendorRequest;
 import com.atm.management.dto.response.VendorResponse;
+import com.atm.management.event.DataChangeEvent;
+import com.atm.management.event.DataChangeEvent.Domain;
 import com.atm.management.exception.ResourceNotFoundException;
 import com.atm.management.model.UploadedFile;
 import com.atm.management.model.Vendor;
 import com.atm.management.repository.AtmRepository;
+import com.atm.management.repository.NaturalIdRepository;
 import com.atm.management.repository.VendorRepository;
+import com.atm.management.repository.VendorStatistics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,13 +35,17 @@ import java.util.stream.Collectors;
 public class VendorService {
 
     private final VendorRepository vendorRepository;
+    private final NaturalIdRepository naturalIdRepository;
     private final AtmRepository atmRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AssetAgeingService assetAgeingService;
 
     @Transactional(readOnly = true)
     public List<VendorResponse> getAllVendors() {
+        Map<Long, Double> ageing = assetAgeingService.getVendorAverageAgeingDays();
         return vendorRepository.findAll()
                 .stream()
-                .map(this::mapToResponse)
+                .map(vendor -> mapToResponse(vendor, ageing.get(vendor.getId())))
                 .collect(Collectors.toList());
     }
 
@@ -48,17 +59,19 @@ public class VendorService {
     @Transactional(readOnly = true)
     public List<VendorResponse> getVendorsByStatus(String status) {
         Vendor.VendorStatus vendorStatus = Vendor.VendorStatus.valueOf(status.toUpperCase());
+        Map<Long, Double> ageing = assetAgeingService.getVendorAverageAgeingDays();
         return vendorRepository.findByStatus(vendorStatus)
                 .stream()
-                .map(this::mapToResponse)
+                .map(vendor -> mapToResponse(vendor, ageing.get(vendor.getId())))
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<VendorResponse> searchVendors(String keyword) {
+        Map<Long, Double> ageing = assetAgeingService.getVendorAverageAgeingDays();
         return vendorRepository.searchByName(keyword)
                 .stream()
-                .map(this::mapToResponse)
+                .map(vendor -> mapToResponse(vendor, ageing.get(vendor.getId())))
                 .collect(Collectors.toList());
     }
 
@@ -81,6 +94,7 @@ public class VendorService {
         vendor.setTotalCost(BigDecimal.ZERO);
 
         Vendor savedVendor = vendorRepository.save(vendor);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.VENDORS));
         return mapToResponse(savedVendor);
     }
 
@@ -98,6 +112,7 @@ public class VendorService {
 
         mapRequestToEntity(request, vendor);
         Vendor updatedVendor = vendorRepository.save(vendor);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.VENDORS));
         return mapToResponse(updatedVendor);
     }
 
@@ -108,6 +123,7 @@ public class VendorService {
 
         vendor.setStatus(Vendor.VendorStatus.valueOf(status.toUpperCase()));
         Vendor updatedVendor = vendorRepository.save(vendor);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.VENDORS));
         return mapToResponse(updatedVendor);
     }
 
@@ -122,12 +138,14 @@ public class VendorService {
 
         vendor.setRating(BigDecimal.valueOf(rating));
         Vendor updatedVendor = vendorRepository.save(vendor);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.VENDORS));
         return mapToResponse(updatedVendor);
     }
 
     @Transactional
     public List<VendorResponse> createVendorsFromExcel(List<String> vendorNames, UploadedFile uploadedFile) {
         List<VendorResponse> createdVendors = new ArrayList<>();
+        Map<Long, Double> ageing = assetAgeingService.getVendorAverageAgeingDays();
 
         for (String vendorName : vendorNames) {
             if (vendorName == null || vendorName.trim().isEmpty()) {
@@ -135,12 +153,13 @@ public class VendorService {
             }
 
             // Check if vendor already exists by name
-            Optional<Vendor> existingVendor = vendorRepository.findByNameIgnoreCase(vendorName.trim());
+            Optional<Vendor> existingVendor = naturalIdRepository.findVendorByName(vendorName.trim())
+                    .or(() -> vendorRepository.findByNameIgnoreCase(vendorName.trim()));
 
             if (existingVendor.isPresent()) {
                 // Vendor exists - for Excel imports with vendor name only, consider it exact duplicate
                 Vendor vendor = existingVendor.get();
-                createdVendors.add(mapToResponse(vendor));
+                createdVendors.add(mapToResponse(vendor, ageing.get(vendor.getId())));
                 continue;
             }
 
@@ -163,9 +182,11 @@ public class VendorService {
             }
 
             Vendor savedVendor = vendorRepository.save(vendor);
-            createdVendors.add(mapToResponse(savedVendor));
+            // A new vendor has no ATMs yet, so no ageing
+            createdVendors.add(mapToResponse(savedVendor, null));
         }
 
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.VENDORS));
         return createdVendors;
     }
 
@@ -228,37 +249,24 @@ public class VendorService {
         }
 
         vendorRepository.deleteById(id);
+        eventPublisher.publishEvent(DataChangeEvent.of(Domain.VENDORS));
     }
 
+    @Cacheable(value = CacheConfig.VENDOR_STATS, key = "#root.methodName")
     @Transactional(readOnly = true)
     public Map<String, Object> getVendorStatistics() {
         Map<String, Object> stats = new HashMap<>();
 
-        Long totalVendors = vendorRepository.count();
-        Long activeVendors = vendorRepository.countActiveVendors();
-
-        List<Vendor> vendors = vendorRepository.findAll();
-
-        int totalAssetsAllocated = vendors.stream()
-                .mapToInt(Vendor::getAssetsAllocated)
-                .sum();
-
-        double averageRating = vendors.stream()
-                .map(Vendor::getRating)
-                .mapToDouble(BigDecimal::doubleValue)
-                .average()
-                .orElse(0.0);
-
-        BigDecimal totalCost = vendors.stream()
-                .map(Vendor::getTotalCost)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        VendorStatistics aggregate = vendorRepository.aggregateStatistics();
+        Long totalVendors = aggregate.getTotalVendors();
+        Long activeVendors = aggregate.getActiveVendors();
 
         stats.put("totalVendors", totalVendors);
         stats.put("activeVendors", activeVendors);
         stats.put("inactiveVendors", totalVendors - activeVendors);
-        stats.put("totalAssetsAllocated", totalAssetsAllocated);
-        stats.put("averageRating", Math.round(averageRating * 10.0) / 10.0);
-        stats.put("totalCost", totalCost);
+        stats.put("totalAssetsAllocated", aggregate.getTotalAssetsAllocated().intValue());
+        stats.put("averageRating", Math.round(aggregate.getAverageRating().doubleValue() * 10.0) / 10.0);
+        stats.put("totalCost", aggregate.getTotalCost());
 
         return stats;
     }
@@ -305,6 +313,10 @@ public class VendorService {
     }
 
     private VendorResponse mapToResponse(Vendor vendor) {
+        return mapToResponse(vendor, assetAgeingService.getVendorAverageAgeingDays(vendor.getId()));
+    }
+
+    private VendorResponse mapToResponse(Vendor vendor, Double averageAgeingDays) {
         return new VendorResponse(
                 vendor.getId(),
                 vendor.getName(),
@@ -318,7 +330,8 @@ public class VendorService {
                 vendor.getRating(),
                 vendor.getJoinedDate(),
                 vendor.getContactPerson(),
-                vendor.getCreatedAt()
+                vendor.getCreatedAt(),
+                averageAgeingDays
         );
     }
 }
@@ -0,0 +1,20 @@
+package com.atm.management.service.alert;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * A dashboard alert backed by a single aggregate (count) query.
+ * The alert is raised when the count is greater than zero.
+ */
+@Getter
+@AllArgsConstructor
+public class AlertRule {
+    private final String id;
+    private final String type;
+    private final LongSupplier countQuery;
+    private final LongFunction<String> message;
+}
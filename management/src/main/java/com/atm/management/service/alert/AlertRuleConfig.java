@@ -0,0 +1,56 @@
+package com.atm.management.service.alert;
+
+import com.atm.management.model.Movement;
+import com.atm.management.repository.AtmRepository;
+import com.atm.management.repository.CostingRepository;
+import com.atm.management.repository.MovementRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+
+/**
+ * Dashboard alert rules, listed in display order. Each one is a single indexed count query.
+ */
+@Configuration
+public class AlertRuleConfig {
+
+    @Bean
+    @Order(1)
+    public AlertRule maintenanceDueRule(AtmRepository atmRepository,
+                                        @Value("${app.alerts.maintenance-window-days:30}") int windowDays) {
+        return new AlertRule("maintenance-due", "warning",
+                () -> atmRepository.countByNextMaintenanceDateBefore(LocalDate.now().plusDays(windowDays)),
+                count -> count + " ATMs need maintenance within " + windowDays + " days");
+    }
+
+    @Bean
+    @Order(2)
+    public AlertRule pendingApprovalsRule(CostingRepository costingRepository) {
+        return new AlertRule("pending-approvals", "info",
+                costingRepository::countPendingApprovals,
+                count -> count + " costing approvals pending");
+    }
+
+    @Bean
+    @Order(3)
+    public AlertRule pendingMovementsRule(MovementRepository movementRepository) {
+        return new AlertRule("pending-movements", "info",
+                () -> movementRepository.countByStatus(Movement.MovementStatus.PENDING),
+                count -> count + " ATM movements pending");
+    }
+
+    @Bean
+    @Order(4)
+    public AlertRule deliveryAgeingRule(MovementRepository movementRepository,
+                                        @Value("${app.alerts.delivery-overdue-days:0}") int overdueDays) {
+        return new AlertRule("delivery-overdue", "warning",
+                () -> movementRepository.countByStatusInAndExpectedDeliveryBefore(
+                        EnumSet.of(Movement.MovementStatus.PENDING, Movement.MovementStatus.IN_TRANSIT),
+                        LocalDate.now().minusDays(overdueDays)),
+                count -> count + " ATM movements past their expected delivery date");
+    }
+}
@@ -0,0 +1,96 @@
+package com.atm.management.service.alert;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates all {@link AlertRule}s in parallel, one count query each, with at most
+ * app.alerts.max-concurrent-queries of them holding a pooled connection at a time.
+ * Results are held by the dashboard snapshot (DashboardSnapshotService), which rebuilds them on change.
+ */
+@Slf4j
+@Service
+public class AlertRuleEngine {
+
+    private final List<AlertRule> rules;
+    private final long timeoutMillis;
+    private final Semaphore queryPermits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public AlertRuleEngine(List<AlertRule> rules,
+                           @Value("${app.alerts.evaluation-timeout-ms:10000}") long timeoutMillis,
+                           @Value("${app.alerts.max-concurrent-queries:4}") int maxConcurrentQueries) {
+        this.rules = rules;
+        this.timeoutMillis = timeoutMillis;
+        this.queryPermits = new Semaphore(Math.max(1, maxConcurrentQueries));
+    }
+
+    /**
+     * @return alerts in rule order, each with id, type, message and count; a rule that failed or timed out
+     * is reported as an "error" alert with failed=true instead of being left out
+     */
+    public List<Map<String, Object>> evaluate() {
+        List<CompletableFuture<Long>> counts = rules.stream()
+                .map(rule -> CompletableFuture.supplyAsync(() -> count(rule), executor)
+                        .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS))
+                .toList();
+
+        List<Map<String, Object>> alerts = new ArrayList<>();
+        for (int i = 0; i < rules.size(); i++) {
+            AlertRule rule = rules.get(i);
+            long count;
+            try {
+                count = counts.get(i).join();
+            } catch (Exception e) {
+                log.error("Alert rule {} failed: {}", rule.getId(), e.getMessage());
+                Map<String, Object> alert = new HashMap<>();
+                alert.put("id", rule.getId());
+                alert.put("type", "error");
+                alert.put("message", "Alert check " + rule.getId() + " could not be evaluated");
+                alert.put("failed", true);
+                alerts.add(alert);
+                continue;
+            }
+            if (count > 0) {
+                Map<String, Object> alert = new HashMap<>();
+                alert.put("id", rule.getId());
+                alert.put("type", rule.getType());
+                alert.put("message", rule.getMessage().apply(count));
+                alert.put("count", count);
+                alerts.add(alert);
+            }
+        }
+        return alerts;
+    }
+
+    private long count(AlertRule rule) {
+        try {
+            queryPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting to evaluate alert rule " + rule.getId(), e);
+        }
+        try {
+            return rule.getCountQuery().getAsLong();
+        } finally {
+            queryPermits.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
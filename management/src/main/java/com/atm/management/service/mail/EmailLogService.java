@@ -0,0 +1,61 @@
+package com.atm.management.service.mail;
+
+import com.atm.management.repository.EmailLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads email_log (history) and email_stats_daily (statistics); both are written by {@link MailOutboxDispatcher}.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmailLogService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_STATISTICS_DAYS = 366;
+
+    private final EmailLogRepository emailLogRepository;
+
+    /**
+     * One page of history, newest first. Pass the returned nextCursor as {@code before} for the next page;
+     * it is null on the last page.
+     */
+    public Map<String, Object> getHistory(Long before, String recipient, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<Map<String, Object>> items = emailLogRepository.findPage(before, recipient, size);
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("items", items);
+        page.put("nextCursor", items.size() == size ? items.get(items.size() - 1).get("id") : null);
+        return page;
+    }
+
+    /**
+     * Sent, failed and retried counts over the last {@code days} days (today included): totals, per day and
+     * per template.
+     */
+    public Map<String, Object> getStatistics(int days) {
+        if (days < 1 || days > MAX_STATISTICS_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + MAX_STATISTICS_DAYS);
+        }
+        List<Map<String, Object>> daily = emailLogRepository.findDailyTotals(days);
+
+        Map<String, Long> totals = new HashMap<>();
+        for (String key : List.of("sent", "failed", "retried")) {
+            totals.put(key, daily.stream().mapToLong(row -> ((Number) row.get(key)).longValue()).sum());
+        }
+
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("days", days);
+        statistics.put("totals", totals);
+        statistics.put("daily", daily);
+        statistics.put("byTemplate", emailLogRepository.findTemplateTotals(days));
+        return statistics;
+    }
+}
@@ -0,0 +1,159 @@
+package com.atm.management.service.mail;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process SMTP server that accepts every message and discards it, keeping counts and the most recent
+ * messages. Stands in for a real mail server in the local profile and in tests: no auth, no TLS, loopback only.
+ */
+@Slf4j
+public class LocalSmtpSink {
+
+    private static final int RECENT_MESSAGES_KEPT = 100;
+
+    private final int port;
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong messages = new AtomicLong();
+    private final Deque<ReceivedMessage> recent = new ArrayDeque<>();
+
+    private ServerSocket serverSocket;
+    private ExecutorService sessions;
+
+    public LocalSmtpSink(int port) {
+        this.port = port;
+    }
+
+    public synchronized void start() throws IOException {
+        serverSocket = new ServerSocket(port, 200, InetAddress.getLoopbackAddress());
+        sessions = Executors.newVirtualThreadPerTaskExecutor();
+        Thread.ofPlatform().daemon().name("smtp-sink-accept").start(this::acceptLoop);
+        log.info("Local SMTP sink listening on {}:{}", serverSocket.getInetAddress().getHostAddress(), getPort());
+    }
+
+    public synchronized void stop() throws IOException {
+        if (serverSocket != null) {
+            serverSocket.close();
+            sessions.shutdownNow();
+            log.info("Local SMTP sink stopped after {} messages on {} connections", messages.get(), connections.get());
+        }
+    }
+
+    public int getPort() {
+        return serverSocket != null ? serverSocket.getLocalPort() : port;
+    }
+
+    public long getMessageCount() {
+        return messages.get();
+    }
+
+    public long getConnectionCount() {
+        return connections.get();
+    }
+
+    public synchronized List<ReceivedMessage> getRecentMessages() {
+        return new ArrayList<>(recent);
+    }
+
+    /**
+     * Wait until at least {@code count} messages have been received in total.
+     * @return false if the timeout passed first
+     */
+    public boolean awaitMessages(long count, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (messages.get() < count) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                sessions.execute(() -> session(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    log.warn("Local SMTP sink accept failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void session(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             OutputStream out = socket.getOutputStream()) {
+            reply(out, "220 localhost local SMTP sink");
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250-localhost\r\n250 8BITMIME");
+                    case "MAIL", "RSET" -> {
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        recipients.add(line.substring(line.indexOf(':') + 1).trim().replaceAll("[<>]", ""));
+                        reply(out, "250 OK");
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+                        }
+                        received(new ReceivedMessage(List.copyOf(recipients), data.toString()));
+                        recipients.clear();
+                        reply(out, "250 OK queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Local SMTP sink session ended: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void received(ReceivedMessage message) {
+        if (recent.size() == RECENT_MESSAGES_KEPT) {
+            recent.removeFirst();
+        }
+        recent.addLast(message);
+        messages.incrementAndGet();
+    }
+
+    private static void reply(OutputStream out, String reply) throws IOException {
+        out.write((reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    public record ReceivedMessage(List<String> recipients, String data) {
+    }
+}
@@ -0,0 +1,221 @@
+package com.atm.management.service.mail;
+
+import com.atm.management.repository.EmailLogEntry;
+import com.atm.management.repository.EmailLogRepository;
+import com.atm.management.repository.EmailOutboxRepository;
+import com.atm.management.repository.OutboxMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains email_outbox in the background: claims due messages, splits them into chunks of
+ * messages-per-connection and sends each chunk over one SMTP connection ({@link SmtpBatchSender}) on a small
+ * worker pool, so at most dispatcher-threads connections are open. The outcome is recorded per message;
+ * failures are retried with exponential backoff until max-attempts, then marked FAILED.
+ * Every attempt is appended to email_log.
+ * <p>
+ * Sending is paced by {@link MailRateLimiter}: no more is claimed than the global limit allows, and messages
+ * whose recipient domain is over its limit are handed back as DEFERRED until that domain has tokens again.
+ */
+@Slf4j
+@Component
+public class MailOutboxDispatcher {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final SmtpBatchSender smtpBatchSender;
+    private final MailRateLimiter rateLimiter;
+    private final EmailLogRepository emailLogRepository;
+    private final ExecutorService workers;
+    // Runs the drain loop, so a long drain never holds the shared (single-threaded) Spring TaskScheduler
+    private final ExecutorService drainer = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("mail-outbox-drain").factory());
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    @Value("${app.mail.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.messages-per-connection:25}")
+    private int messagesPerConnection;
+
+    @Value("${app.mail.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.backoff-initial-seconds:30}")
+    private long backoffInitialSeconds;
+
+    @Value("${app.mail.outbox.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    @Value("${app.mail.outbox.claim-timeout-seconds:300}")
+    private long claimTimeoutSeconds;
+
+    public MailOutboxDispatcher(EmailOutboxRepository outboxRepository,
+                                SmtpBatchSender smtpBatchSender,
+                                MailRateLimiter rateLimiter,
+                                EmailLogRepository emailLogRepository,
+                                @Value("${app.mail.outbox.dispatcher-threads:4}") int dispatcherThreads) {
+        this.outboxRepository = outboxRepository;
+        this.smtpBatchSender = smtpBatchSender;
+        this.rateLimiter = rateLimiter;
+        this.emailLogRepository = emailLogRepository;
+        // Platform threads on purpose: JavaMail does its socket I/O inside synchronized methods, which pins virtual
+        // threads to their carrier (JDK 21) and can starve every other virtual thread while a server is slow
+        this.workers = Executors.newFixedThreadPool(dispatcherThreads, Thread.ofPlatform().name("mail-sender-", 0).factory());
+    }
+
+    /**
+     * Start a drain on the dispatcher's own thread unless one is still running; returns immediately so the
+     * other scheduled jobs are never held up by SMTP.
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        if (!smtpBatchSender.isAvailable() || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            drainer.execute(() -> {
+                try {
+                    drain();
+                } finally {
+                    draining.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            draining.set(false);
+        }
+    }
+
+    /**
+     * Keep claiming and sending until nothing is due, the global rate limit is used up or a round admits
+     * nothing (everything claimed was over its domain limit), then wait for the next poll.
+     */
+    private void drain() {
+        try {
+            List<OutboxMessage> claimed;
+            List<OutboxMessage> admitted;
+            int limit;
+            do {
+                limit = Math.min(batchSize, rateLimiter.availableGlobally());
+                if (limit == 0) {
+                    return;
+                }
+                claimed = outboxRepository.claimDue(limit, claimTimeoutSeconds);
+                admitted = admit(claimed);
+                if (!admitted.isEmpty()) {
+                    sendAll(admitted);
+                }
+            } while (claimed.size() == limit && !admitted.isEmpty());
+        } catch (Exception e) {
+            log.error("Email outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Take a rate-limit token for each claimed message; the ones that get none are deferred to the next free
+     * slot of their domain, so they come back at the domain's rate rather than all at the same moment.
+     */
+    private List<OutboxMessage> admit(List<OutboxMessage> claimed) {
+        List<OutboxMessage> admitted = new ArrayList<>(claimed.size());
+        Map<Long, Long> deferred = new HashMap<>();
+        for (OutboxMessage message : claimed) {
+            long waitMillis = rateLimiter.tryAcquire(message.getRecipient());
+            if (waitMillis == 0) {
+                admitted.add(message);
+                continue;
+            }
+            deferred.put(message.getId(), rateLimiter.reserveDeferral(message.getRecipient(), waitMillis));
+        }
+        if (!deferred.isEmpty()) {
+            outboxRepository.markDeferred(deferred);
+            log.debug("Email outbox: deferred {} messages over the rate limits", deferred.size());
+        }
+        return admitted;
+    }
+
+    private void sendAll(List<OutboxMessage> messages) throws InterruptedException {
+        List<Callable<Map<Long, Exception>>> chunks = new ArrayList<>();
+        for (int from = 0; from < messages.size(); from += messagesPerConnection) {
+            List<OutboxMessage> chunk = messages.subList(from, Math.min(from + messagesPerConnection, messages.size()));
+            chunks.add(() -> smtpBatchSender.send(chunk));
+        }
+
+        Map<Long, Exception> failures = new HashMap<>();
+        List<Future<Map<Long, Exception>>> outcomes = workers.invokeAll(chunks);
+        for (int i = 0; i < outcomes.size(); i++) {
+            try {
+                failures.putAll(outcomes.get(i).get());
+            } catch (ExecutionException e) {
+                Exception cause = e.getCause() instanceof Exception ex ? ex : e;
+                int from = i * messagesPerConnection;
+                messages.subList(from, Math.min(from + messagesPerConnection, messages.size()))
+                        .forEach(message -> failures.put(message.getId(), cause));
+            }
+        }
+
+        List<Long> sent = new ArrayList<>();
+        List<EmailLogEntry> history = new ArrayList<>(messages.size());
+        for (OutboxMessage message : messages) {
+            Exception error = failures.get(message.getId());
+            if (error == null) {
+                sent.add(message.getId());
+                history.add(new EmailLogEntry(message, EmailLogEntry.Status.SENT, null));
+            } else {
+                history.add(recordFailure(message, error));
+            }
+        }
+        if (!sent.isEmpty()) {
+            outboxRepository.markSent(sent);
+        }
+        recordHistory(history);
+        log.info("Email outbox: {} sent, {} failed of {} claimed over {} connections",
+                sent.size(), messages.size() - sent.size(), messages.size(), chunks.size());
+    }
+
+    private EmailLogEntry recordFailure(OutboxMessage message, Exception error) {
+        String reason = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        if (message.getAttempts() >= maxAttempts) {
+            outboxRepository.markFailed(message.getId(), reason);
+            log.warn("Giving up on email {} to {} after {} attempts: {}",
+                    message.getId(), message.getRecipient(), message.getAttempts(), reason);
+            return new EmailLogEntry(message, EmailLogEntry.Status.FAILED, reason);
+        }
+        // 30s, 60s, 120s, ... capped at backoff-max-seconds
+        long delay = Math.min(backoffMaxSeconds, backoffInitialSeconds << Math.min(message.getAttempts() - 1, 20));
+        outboxRepository.markRetry(message.getId(), reason, delay);
+        return new EmailLogEntry(message, EmailLogEntry.Status.RETRY, reason);
+    }
+
+    /**
+     * One batched write per dispatch cycle. History is best effort: the outbox already holds the outcome,
+     * so a failure here is logged and never holds up or repeats a send.
+     */
+    private void recordHistory(List<EmailLogEntry> history) {
+        try {
+            emailLogRepository.record(history);
+        } catch (Exception e) {
+            log.warn("Failed to record {} email log entries: {}", history.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drainer.shutdown();
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,97 @@
+package com.atm.management.service.mail;
+
+import com.atm.management.exception.ResourceNotFoundException;
+import com.atm.management.repository.EmailOutboxRepository;
+import com.atm.management.repository.OutboxEntry;
+import com.atm.management.repository.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Entry point for outbound mail: messages are written to the outbox and sent by {@link MailOutboxDispatcher},
+ * so callers return as soon as the rows are committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MailOutboxService {
+
+    private static final int FAILED_MESSAGES_SHOWN = 50;
+
+    private final EmailOutboxRepository outboxRepository;
+
+    /**
+     * Queue the same message for every recipient.
+     * @return batch id to follow delivery with {@link #getBatchStatus(UUID)}
+     */
+    @Transactional
+    public UUID enqueue(List<String> recipients, String subject, String body) {
+        if (recipients == null || recipients.isEmpty()) {
+            throw new IllegalArgumentException("At least one recipient is required");
+        }
+        UUID batchId = UUID.randomUUID();
+        outboxRepository.enqueue(batchId, recipients, subject, body);
+        log.info("Queued {} emails in batch {}", recipients.size(), batchId);
+        return batchId;
+    }
+
+    /**
+     * Queue messages that were rendered per recipient, as one batch.
+     */
+    @Transactional
+    public UUID enqueueAll(List<OutboxEntry> entries) {
+        if (entries == null || entries.isEmpty()) {
+            throw new IllegalArgumentException("At least one recipient is required");
+        }
+        UUID batchId = UUID.randomUUID();
+        outboxRepository.enqueue(batchId, entries);
+        log.info("Queued {} emails in batch {}", entries.size(), batchId);
+        return batchId;
+    }
+
+    @Transactional
+    public UUID enqueue(String recipient, String subject, String body) {
+        return enqueue(List.of(recipient), subject, body);
+    }
+
+    /**
+     * Queue a single message rendered from the named template.
+     */
+    @Transactional
+    public UUID enqueue(OutboxEntry entry) {
+        return enqueueAll(List.of(entry));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getBatchStatus(UUID batchId) {
+        Map<String, Long> counts = outboxRepository.countByStatus(batchId);
+        if (counts.isEmpty()) {
+            throw new ResourceNotFoundException("Email batch not found: " + batchId);
+        }
+
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        long sent = counts.getOrDefault(OutboxMessage.Status.SENT.name(), 0L);
+        long failed = counts.getOrDefault(OutboxMessage.Status.FAILED.name(), 0L);
+        long deferred = counts.getOrDefault(OutboxMessage.Status.DEFERRED.name(), 0L);
+        long pending = total - sent - failed - deferred;
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("batchId", batchId);
+        status.put("total", total);
+        status.put("pending", pending);
+        status.put("deferred", deferred);
+        status.put("sent", sent);
+        status.put("failed", failed);
+        status.put("progressPercent", Math.round((sent + failed) * 1000d / total) / 10d);
+        status.put("complete", sent + failed == total);
+        status.put("failures", outboxRepository.findFailed(batchId, FAILED_MESSAGES_SHOWN));
+        return status;
+    }
+}
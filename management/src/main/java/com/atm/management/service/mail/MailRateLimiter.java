@@ -0,0 +1,111 @@
+package com.atm.management.service.mail;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Send rate limits for outbound mail: one global token bucket plus one bucket per recipient domain, so a large
+ * batch to a single provider cannot trip that provider's limits. Domains without an override share the
+ * default domain rate, each with its own bucket.
+ */
+@Component
+public class MailRateLimiter {
+
+    private final TokenBucket global;
+    private final double domainPerSecond;
+    private final double domainBurst;
+    private final Map<String, Double> domainOverrides;
+    private final Map<String, TokenBucket> domainBuckets = new ConcurrentHashMap<>();
+    // Domain -> epoch millis of the next free deferral slot; kept across claim rounds and dispatch runs
+    private final Map<String, Long> nextDeferralSlot = new ConcurrentHashMap<>();
+
+    public MailRateLimiter(@Value("${app.mail.rate.global-per-second:20}") double globalPerSecond,
+                           @Value("${app.mail.rate.global-burst:40}") double globalBurst,
+                           @Value("${app.mail.rate.domain-per-second:5}") double domainPerSecond,
+                           @Value("${app.mail.rate.domain-burst:10}") double domainBurst,
+                           @Value("${app.mail.rate.domain-overrides:}") String domainOverrides) {
+        this.global = new TokenBucket(globalPerSecond, globalBurst);
+        this.domainPerSecond = domainPerSecond;
+        this.domainBurst = domainBurst;
+        this.domainOverrides = parseOverrides(domainOverrides);
+    }
+
+    /**
+     * Messages that may be sent right now as far as the global limit is concerned.
+     */
+    public int availableGlobally() {
+        return global.available();
+    }
+
+    /**
+     * Take a token for one message to {@code recipient} from its domain bucket and the global bucket.
+     * @return 0 when the message may be sent now, otherwise milliseconds until a token is expected
+     */
+    public long tryAcquire(String recipient) {
+        TokenBucket domain = domainBucket(recipient);
+        if (!domain.tryAcquire()) {
+            return Math.max(1, domain.millisUntilAvailable(1));
+        }
+        if (!global.tryAcquire()) {
+            domain.release();
+            return Math.max(1, global.millisUntilAvailable(1));
+        }
+        return 0;
+    }
+
+    /**
+     * Reserve the next free deferral slot for {@code recipient}'s domain: at least {@code waitMillis} from now
+     * and one token interval after the previous reservation, so deferred messages come back at the domain's
+     * rate instead of all at once.
+     * @return milliseconds from now until the reserved slot
+     */
+    public long reserveDeferral(String recipient, long waitMillis) {
+        String domain = domainOf(recipient);
+        long now = System.currentTimeMillis();
+        long interval = (long) Math.ceil(1000 / domainRate(domain));
+        long slot = nextDeferralSlot.compute(domain,
+                (key, next) -> Math.max(now + waitMillis, next != null ? next : 0) + interval) - interval;
+        return slot - now;
+    }
+
+    static String domainOf(String recipient) {
+        int at = recipient.lastIndexOf('@');
+        return (at < 0 ? recipient : recipient.substring(at + 1)).trim().toLowerCase(Locale.ROOT);
+    }
+
+    private TokenBucket domainBucket(String recipient) {
+        String domain = domainOf(recipient);
+        return domainBuckets.computeIfAbsent(domain, key -> {
+            double rate = domainRate(key);
+            // An override scales the burst with it, keeping the default burst-to-rate ratio
+            return new TokenBucket(rate, Math.max(1, domainBurst * rate / domainPerSecond));
+        });
+    }
+
+    private double domainRate(String domain) {
+        return domainOverrides.getOrDefault(domain, domainPerSecond);
+    }
+
+    /**
+     * "gmail.com:10,yahoo.com:2" -> {gmail.com=10.0, yahoo.com=2.0}
+     */
+    private static Map<String, Double> parseOverrides(String overrides) {
+        Map<String, Double> rates = new HashMap<>();
+        if (overrides == null || overrides.isBlank()) {
+            return rates;
+        }
+        for (String entry : overrides.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid app.mail.rate.domain-overrides entry: " + entry);
+            }
+            rates.put(parts[0].trim().toLowerCase(Locale.ROOT), Double.parseDouble(parts[1].trim()));
+        }
+        return rates;
+    }
+}
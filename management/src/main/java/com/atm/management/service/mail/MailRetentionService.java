@@ -0,0 +1,60 @@
+package com.atm.management.service.mail;
+
+import com.atm.management.repository.EmailLogRepository;
+import com.atm.management.repository.EmailOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Nightly clean-up of finished mail. SENT and FAILED outbox rows are deleted once older than
+ * app.mail.outbox.retention-days, so the claim table and its indexes only hold recent work, and email_log
+ * entries once older than app.mail.log.retention-days. Totals stay in email_stats_daily.
+ * Deletes run in chunks, each committed on its own, so the dispatcher is never blocked for long.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MailRetentionService {
+
+    private static final int DELETE_CHUNK_SIZE = 5000;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailLogRepository emailLogRepository;
+
+    @Value("${app.mail.outbox.retention-days:14}")
+    private int outboxRetentionDays;
+
+    @Value("${app.mail.log.retention-days:90}")
+    private int logRetentionDays;
+
+    @Scheduled(cron = "${app.mail.retention.cron:0 30 1 * * *}")
+    public void purge() {
+        try {
+            long deleted = deleteInChunks(limit -> outboxRepository.deleteFinishedBefore(outboxRetentionDays, limit));
+            log.info("Purged {} finished email_outbox rows older than {} days", deleted, outboxRetentionDays);
+        } catch (Exception e) {
+            log.error("Email outbox purge failed: {}", e.getMessage());
+        }
+        try {
+            long deleted = deleteInChunks(limit -> emailLogRepository.deleteOlderThan(logRetentionDays, limit));
+            log.info("Purged {} email_log entries older than {} days", deleted, logRetentionDays);
+        } catch (Exception e) {
+            log.error("Email log purge failed: {}", e.getMessage());
+        }
+    }
+
+    private static long deleteInChunks(IntUnaryOperator deleteChunk) {
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = deleteChunk.applyAsInt(DELETE_CHUNK_SIZE);
+            deleted += chunk;
+        } while (chunk == DELETE_CHUNK_SIZE);
+        return deleted;
+    }
+}
@@ -0,0 +1,103 @@
+package com.atm.management.service.mail;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A mail template parsed once into literal and {@code {{variable}}} parts, so rendering is a single pass of
+ * appends with no re-parsing. Source format: a "Subject: ..." line, a blank line, then the body.
+ * Variables that are missing or null render as an empty string.
+ */
+@Getter
+public class MailTemplate {
+
+    private static final String SUBJECT_PREFIX = "Subject:";
+
+    private final String name;
+    private final String source;
+    private final Set<String> variables;
+    private final List<Part> subject;
+    private final List<Part> body;
+
+    private MailTemplate(String name, String source, List<Part> subject, List<Part> body) {
+        this.name = name;
+        this.source = source;
+        this.subject = subject;
+        this.body = body;
+        Set<String> names = new LinkedHashSet<>();
+        subject.stream().filter(Part::variable).forEach(part -> names.add(part.text()));
+        body.stream().filter(Part::variable).forEach(part -> names.add(part.text()));
+        this.variables = Collections.unmodifiableSet(names);
+    }
+
+    public static MailTemplate compile(String name, String source) {
+        String normalized = source.replace("\r\n", "\n");
+        int headerEnd = normalized.indexOf('\n');
+        String header = headerEnd < 0 ? normalized : normalized.substring(0, headerEnd);
+        if (!header.startsWith(SUBJECT_PREFIX)) {
+            throw new IllegalArgumentException("Mail template '" + name + "' must start with a 'Subject:' line");
+        }
+        String body = headerEnd < 0 ? "" : normalized.substring(headerEnd + 1).stripLeading();
+        return new MailTemplate(name, normalized,
+                parse(name, header.substring(SUBJECT_PREFIX.length()).trim()), parse(name, body));
+    }
+
+    public String renderSubject(Map<String, ?> values) {
+        return render(subject, values);
+    }
+
+    public String renderBody(Map<String, ?> values) {
+        return render(body, values);
+    }
+
+    private static String render(List<Part> parts, Map<String, ?> values) {
+        StringBuilder out = new StringBuilder(256);
+        for (Part part : parts) {
+            if (part.variable()) {
+                Object value = values.get(part.text());
+                if (value != null) {
+                    out.append(value);
+                }
+            } else {
+                out.append(part.text());
+            }
+        }
+        return out.toString();
+    }
+
+    private static List<Part> parse(String name, String text) {
+        List<Part> parts = new ArrayList<>();
+        int position = 0;
+        while (position < text.length()) {
+            int open = text.indexOf("{{", position);
+            if (open < 0) {
+                parts.add(new Part(text.substring(position), false));
+                break;
+            }
+            int close = text.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed '{{' in mail template '" + name + "'");
+            }
+            if (open > position) {
+                parts.add(new Part(text.substring(position, open), false));
+            }
+            String variable = text.substring(open + 2, close).trim();
+            if (variable.isEmpty()) {
+                throw new IllegalArgumentException("Empty variable in mail template '" + name + "'");
+            }
+            parts.add(new Part(variable, true));
+            position = close + 2;
+        }
+        return List.copyOf(parts);
+    }
+
+    /** Literal text, or the name of a variable. */
+    record Part(String text, boolean variable) {
+    }
+}
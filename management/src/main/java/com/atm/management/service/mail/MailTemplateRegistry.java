@@ -0,0 +1,70 @@
+package com.atm.management.service.mail;
+
+import com.atm.management.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mail templates (*.txt under app.mail.templates.location), compiled once at startup and on {@link #reload()}.
+ * A reload compiles everything before swapping it in, so a broken template never replaces a working set.
+ */
+@Slf4j
+@Component
+public class MailTemplateRegistry {
+
+    private static final String EXTENSION = ".txt";
+
+    private final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+    @Value("${app.mail.templates.location:classpath:mail-templates/}")
+    private String location;
+
+    private volatile Map<String, MailTemplate> templates = Map.of();
+
+    @PostConstruct
+    public void load() {
+        reload();
+    }
+
+    /**
+     * Re-read and recompile all templates.
+     * @return number of templates loaded
+     */
+    public synchronized int reload() {
+        Map<String, MailTemplate> compiled = new TreeMap<>();
+        try {
+            for (Resource resource : resolver.getResources(location + "*" + EXTENSION)) {
+                String filename = resource.getFilename();
+                String name = filename.substring(0, filename.length() - EXTENSION.length());
+                compiled.put(name, MailTemplate.compile(name, resource.getContentAsString(StandardCharsets.UTF_8)));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load mail templates from " + location, e);
+        }
+        templates = Map.copyOf(compiled);
+        log.info("Loaded {} mail templates from {}", compiled.size(), location);
+        return compiled.size();
+    }
+
+    public MailTemplate get(String name) {
+        MailTemplate template = templates.get(name);
+        if (template == null) {
+            throw new ResourceNotFoundException("Mail template not found: " + name);
+        }
+        return template;
+    }
+
+    public Collection<MailTemplate> getAll() {
+        return new TreeMap<>(templates).values();
+    }
+}
@@ -0,0 +1,101 @@
+package com.atm.management.service.mail;
+
+import com.atm.management.repository.OutboxMessage;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Sends a chunk of outbox messages over a single SMTP connection: {@link JavaMailSender#send(MimeMessage...)}
+ * connects, does STARTTLS and auth once, then transmits every message before closing. Callers bound the chunk
+ * size, which rotates connections every N messages, and run chunks in parallel for a small pool of connections.
+ */
+@Slf4j
+@Component
+public class SmtpBatchSender {
+
+    private final ObjectProvider<JavaMailSender> mailSender;
+
+    @Value("${spring.mail.username:noreply@assetflow.com}")
+    private String fromEmail;
+
+    @Value("${spring.mail.enabled:false}")
+    private boolean mailEnabled;
+
+    public SmtpBatchSender(ObjectProvider<JavaMailSender> mailSender) {
+        this.mailSender = mailSender;
+    }
+
+    public boolean isAvailable() {
+        return mailEnabled && mailSender.getIfAvailable() != null;
+    }
+
+    /**
+     * Send all messages on one connection.
+     * @return failure per outbox message id; messages not in the map were accepted by the server
+     */
+    public Map<Long, Exception> send(List<OutboxMessage> messages) {
+        JavaMailSender sender = mailSender.getObject();
+        Map<Long, Exception> failures = new HashMap<>();
+        Map<MimeMessage, Long> ids = new IdentityHashMap<>();
+        List<MimeMessage> mimeMessages = new ArrayList<>(messages.size());
+
+        for (OutboxMessage message : messages) {
+            try {
+                MimeMessage mimeMessage = sender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, message.getAttachment() != null, "UTF-8");
+                helper.setFrom(fromEmail);
+                helper.setTo(message.getRecipient());
+                helper.setSubject(message.getSubject());
+                helper.setText(message.getBody());
+                if (message.getAttachment() != null) {
+                    String contentType = MediaTypeFactory.getMediaType(message.getAttachmentName())
+                            .map(Object::toString).orElse("application/octet-stream");
+                    helper.addAttachment(message.getAttachmentName(), new ByteArrayResource(message.getAttachment()), contentType);
+                }
+                ids.put(mimeMessage, message.getId());
+                mimeMessages.add(mimeMessage);
+            } catch (MessagingException e) {
+                failures.put(message.getId(), e);
+            }
+        }
+        if (mimeMessages.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            sender.send(mimeMessages.toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            // Per-message failures, or every message when the connection itself could not be opened
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                ids.values().forEach(id -> failures.put(id, e));
+            } else {
+                failedMessages.forEach((mimeMessage, error) -> {
+                    Long id = ids.get(mimeMessage);
+                    if (id != null) {
+                        failures.put(id, error);
+                    }
+                });
+            }
+        } catch (MailException e) {
+            // Authentication or connection failure before anything was sent
+            ids.values().forEach(id -> failures.put(id, e));
+        }
+
+        log.debug("SMTP batch: {} of {} messages accepted on one connection",
+                messages.size() - failures.size(), messages.size());
+        return failures;
+    }
+}
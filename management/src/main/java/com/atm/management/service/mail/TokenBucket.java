@@ -0,0 +1,59 @@
+package com.atm.management.service.mail;
+
+/**
+ * Classic token bucket: holds up to {@code capacity} tokens (the allowed burst) and refills at
+ * {@code ratePerSecond}. Thread-safe; callers never block, they are told how long to wait instead.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double ratePerSecond, double capacity) {
+        if (ratePerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("Token bucket needs a positive rate and a capacity of at least 1");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * Give back a token taken by {@link #tryAcquire()} that ended up unused.
+     */
+    synchronized void release() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    synchronized int available() {
+        refill();
+        return (int) tokens;
+    }
+
+    /**
+     * Milliseconds until {@code permits} more tokens will have been added (0 if they are already there).
+     */
+    synchronized long millisUntilAvailable(int permits) {
+        refill();
+        double missing = permits - tokens;
+        return missing <= 0 ? 0 : (long) Math.ceil(missing / tokensPerNano / 1_000_000d);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
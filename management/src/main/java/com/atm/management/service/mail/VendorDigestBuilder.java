@@ -0,0 +1,154 @@
+package com.atm.management.service.mail;
+
+import com.atm.management.model.EmailRecipient;
+import com.atm.management.repository.OutboxEntry;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds one digest message for all sheet rows of a vendor: a text summary table in the body (first
+ * max-table-rows rows) and, optionally, an XLSX of all the vendor's rows. The workbook is written with
+ * streaming SXSSF, which keeps only a small window of rows in memory however many rows the vendor has.
+ */
+@Component
+public class VendorDigestBuilder {
+
+    static final String TEMPLATE = "vendor_digest";
+    private static final int SXSSF_WINDOW = 100;
+
+    private static final List<Column> TABLE_COLUMNS = List.of(
+            new Column("S.No", 5, EmailRecipient::getSNo),
+            new Column("ATM/BNA ID", 14, EmailRecipient::getAtmBnaId),
+            new Column("Docket No", 14, EmailRecipient::getDocketNo),
+            new Column("From", 18, EmailRecipient::getFromLocation),
+            new Column("To", 18, EmailRecipient::getToLocation),
+            new Column("Status", 12, EmailRecipient::getStatus),
+            new Column("Final Amount", 12, row -> formatAmount(row.getFinalAmount())));
+
+    private static final List<Column> ATTACHMENT_COLUMNS = List.of(
+            new Column("S.No", 0, EmailRecipient::getSNo),
+            new Column("Provision Month", 0, EmailRecipient::getProvisionMonth),
+            new Column("ATM/BNA ID", 0, EmailRecipient::getAtmBnaId),
+            new Column("Docket No", 0, EmailRecipient::getDocketNo),
+            new Column("Bank Name", 0, EmailRecipient::getBankName),
+            new Column("From Location", 0, EmailRecipient::getFromLocation),
+            new Column("To Location", 0, EmailRecipient::getToLocation),
+            new Column("Type of Movement", 0, EmailRecipient::getTypeOfMovement),
+            new Column("Status", 0, EmailRecipient::getStatus),
+            new Column("Pick Up Date", 0, EmailRecipient::getPickUpDate),
+            new Column("Delivery Date", 0, EmailRecipient::getDeliveryDate),
+            new Column("Billing Month", 0, EmailRecipient::getBillingMonth),
+            new Column("Invoice No", 0, EmailRecipient::getInvoiceNo),
+            new Column("Total Cost", 0, EmailRecipient::getTotalCost),
+            new Column("Hold", 0, EmailRecipient::getHold),
+            new Column("Deduction", 0, EmailRecipient::getDeduction),
+            new Column("Final Amount", 0, EmailRecipient::getFinalAmount),
+            new Column("Amount Received", 0, EmailRecipient::getAmountReceived));
+
+    private final MailTemplateRegistry templateRegistry;
+
+    @Value("${app.mail.digest.max-table-rows:50}")
+    private int maxTableRows;
+
+    public VendorDigestBuilder(MailTemplateRegistry templateRegistry) {
+        this.templateRegistry = templateRegistry;
+    }
+
+    public OutboxEntry build(String vendorEmail, String vendorName, List<EmailRecipient> rows,
+                             String subject, String message, boolean attachRows) {
+        double total = rows.stream().mapToDouble(row -> row.getFinalAmount() != null ? row.getFinalAmount() : 0).sum();
+        String attachmentName = attachRows ? attachmentName(vendorName) : null;
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("vendorName", vendorName);
+        values.put("subject", subject != null && !subject.isBlank() ? subject : "AssetFlow statement for " + vendorName);
+        values.put("message", message != null ? message : "");
+        values.put("rowCount", rows.size());
+        values.put("totalFinalAmount", formatAmount(total));
+        values.put("summaryTable", summaryTable(rows));
+        values.put("attachmentNote", attachRows ? "All " + rows.size() + " rows are attached as " + attachmentName + "." : "");
+
+        MailTemplate template = templateRegistry.get(TEMPLATE);
+        return new OutboxEntry(vendorEmail, template.renderSubject(values), template.renderBody(values), TEMPLATE,
+                attachmentName, attachRows ? workbook(rows) : null);
+    }
+
+    private String summaryTable(List<EmailRecipient> rows) {
+        StringBuilder table = new StringBuilder();
+        appendLine(table, TABLE_COLUMNS, column -> column.header());
+        appendLine(table, TABLE_COLUMNS, column -> "-".repeat(column.width()));
+        rows.stream().limit(maxTableRows).forEach(row -> appendLine(table, TABLE_COLUMNS, column -> text(column.value().apply(row))));
+        if (rows.size() > maxTableRows) {
+            table.append("... and ").append(rows.size() - maxTableRows).append(" more rows\n");
+        }
+        return table.toString();
+    }
+
+    private static void appendLine(StringBuilder table, List<Column> columns, Function<Column, String> cell) {
+        for (Column column : columns) {
+            String value = cell.apply(column);
+            if (value.length() > column.width()) {
+                value = value.substring(0, column.width() - 1) + "~";
+            }
+            table.append(String.format("%-" + column.width() + "s ", value));
+        }
+        table.setLength(table.length() - 1);
+        table.append('\n');
+    }
+
+    private static byte[] workbook(List<EmailRecipient> rows) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(SXSSF_WINDOW);
+        try (workbook; ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("Rows");
+            Row header = sheet.createRow(0);
+            for (int c = 0; c < ATTACHMENT_COLUMNS.size(); c++) {
+                header.createCell(c).setCellValue(ATTACHMENT_COLUMNS.get(c).header());
+            }
+            int r = 1;
+            for (EmailRecipient row : rows) {
+                Row sheetRow = sheet.createRow(r++);
+                for (int c = 0; c < ATTACHMENT_COLUMNS.size(); c++) {
+                    Object value = ATTACHMENT_COLUMNS.get(c).value().apply(row);
+                    if (value instanceof Number number) {
+                        sheetRow.createCell(c).setCellValue(number.doubleValue());
+                    } else if (value != null) {
+                        sheetRow.createCell(c).setCellValue(value.toString());
+                    }
+                }
+            }
+            workbook.write(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to build digest attachment", e);
+        } finally {
+            // SXSSF flushes rows to temp files; remove them
+            workbook.dispose();
+        }
+    }
+
+    private static String attachmentName(String vendorName) {
+        return vendorName.replaceAll("[^A-Za-z0-9._-]+", "_") + "_rows.xlsx";
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static String formatAmount(Double amount) {
+        return amount != null ? String.format("%.2f", amount) : "";
+    }
+
+    private record Column(String header, int width, Function<EmailRecipient, Object> value) {
+    }
+}
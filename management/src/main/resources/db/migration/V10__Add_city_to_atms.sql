@@ -0,0 +1,8 @@
+-- City derived from the last comma-separated part of location (kept up to date by Atm.deriveCity on writes)
+ALTER TABLE atms ADD COLUMN IF NOT EXISTS city VARCHAR(255);
+
+UPDATE atms
+SET city = NULLIF(btrim(regexp_replace(location, '^.*,', '')), '')
+WHERE location IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_atms_city ON atms (city);
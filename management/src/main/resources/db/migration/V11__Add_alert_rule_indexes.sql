@@ -0,0 +1,4 @@
+-- One index per alert rule aggregate (see service/alert/AlertRuleConfig)
+CREATE INDEX IF NOT EXISTS idx_atms_next_maintenance_date ON atms (next_maintenance_date);
+CREATE INDEX IF NOT EXISTS idx_costings_status ON costings (status);
+CREATE INDEX IF NOT EXISTS idx_movements_status_expected_delivery ON movements (status, expected_delivery);
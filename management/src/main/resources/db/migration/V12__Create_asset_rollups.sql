@@ -0,0 +1,36 @@
+-- Time-series rollups written by AssetRollupService so trend charts and monthly statistics
+-- read a few small rows instead of scanning atms and movements.
+
+-- One row per day: state of the fleet and movement pipeline when the rollup ran
+CREATE TABLE asset_daily_rollups (
+    rollup_date          DATE         PRIMARY KEY,
+    total_assets         BIGINT       NOT NULL,
+    idle_assets          BIGINT       NOT NULL,
+    maintenance_assets   BIGINT       NOT NULL,
+    total_vendors        BIGINT       NOT NULL,
+    total_movements      BIGINT       NOT NULL,
+    pending_movements    BIGINT       NOT NULL,
+    in_transit_movements BIGINT       NOT NULL,
+    delivered_movements  BIGINT       NOT NULL,
+    cancelled_movements  BIGINT       NOT NULL,
+    movements_initiated  BIGINT       NOT NULL,
+    computed_at          TIMESTAMP(6) NOT NULL
+);
+
+-- Asset count per asset_status for each rollup day
+CREATE TABLE asset_status_daily_counts (
+    rollup_date  DATE         NOT NULL REFERENCES asset_daily_rollups (rollup_date) ON DELETE CASCADE,
+    asset_status VARCHAR(255) NOT NULL,
+    total        BIGINT       NOT NULL,
+    PRIMARY KEY (rollup_date, asset_status)
+);
+
+-- One row per month (first day of the month), taken from the latest daily rollup in that month
+CREATE TABLE asset_monthly_rollups (
+    month               DATE          PRIMARY KEY,
+    last_rollup_date    DATE          NOT NULL REFERENCES asset_daily_rollups (rollup_date),
+    movements_initiated BIGINT        NOT NULL,
+    turnover_rate       NUMERIC(7, 2) NOT NULL,
+    risk_rate           NUMERIC(7, 2) NOT NULL,
+    computed_at         TIMESTAMP(6)  NOT NULL
+);
@@ -0,0 +1,113 @@
+-- Ageing per asset: days from pickup to delivery, or to today while the asset is still undelivered
+-- (the same rule the dashboard used client-side). ATMs without a pickup date have no ageing row.
+-- asset_ageing is kept in step with atms by a trigger; open rows are re-aged nightly by AssetAgeingService.
+-- asset_ageing_totals holds running sums so averages and bucket counts are single-row reads.
+
+CREATE TABLE asset_ageing (
+    atm_id      BIGINT      PRIMARY KEY REFERENCES atms (id) ON DELETE CASCADE,
+    vendor_id   BIGINT,
+    ageing_days INTEGER     NOT NULL,
+    bucket      VARCHAR(8)  NOT NULL CHECK (bucket IN ('0-30', '31-60', '61-90', '90+')),
+    delivered   BOOLEAN     NOT NULL,
+    computed_on DATE        NOT NULL
+);
+
+CREATE INDEX idx_asset_ageing_open ON asset_ageing (atm_id) WHERE NOT delivered;
+
+-- vendor_id 0 holds the totals over all assets; other rows are per vendor
+CREATE TABLE asset_ageing_totals (
+    vendor_id      BIGINT PRIMARY KEY,
+    asset_count    BIGINT NOT NULL DEFAULT 0,
+    total_days     BIGINT NOT NULL DEFAULT 0,
+    bucket_0_30    BIGINT NOT NULL DEFAULT 0,
+    bucket_31_60   BIGINT NOT NULL DEFAULT 0,
+    bucket_61_90   BIGINT NOT NULL DEFAULT 0,
+    bucket_over_90 BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE OR REPLACE FUNCTION ageing_bucket(p_days INTEGER) RETURNS VARCHAR AS $$
+    SELECT CASE
+        WHEN p_days <= 30 THEN '0-30'
+        WHEN p_days <= 60 THEN '31-60'
+        WHEN p_days <= 90 THEN '61-90'
+        ELSE '90+'
+    END;
+$$ LANGUAGE sql IMMUTABLE;
+
+-- Add (p_sign = 1) or remove (p_sign = -1) one asset from the global and vendor running sums
+CREATE OR REPLACE FUNCTION adjust_ageing_totals(p_vendor_id BIGINT, p_days INTEGER, p_bucket VARCHAR, p_sign INTEGER)
+RETURNS VOID AS $$
+BEGIN
+    INSERT INTO asset_ageing_totals AS t (vendor_id, asset_count, total_days,
+                                          bucket_0_30, bucket_31_60, bucket_61_90, bucket_over_90)
+    SELECT k, p_sign, p_sign * p_days,
+           CASE WHEN p_bucket = '0-30' THEN p_sign ELSE 0 END,
+           CASE WHEN p_bucket = '31-60' THEN p_sign ELSE 0 END,
+           CASE WHEN p_bucket = '61-90' THEN p_sign ELSE 0 END,
+           CASE WHEN p_bucket = '90+' THEN p_sign ELSE 0 END
+    FROM unnest(CASE WHEN p_vendor_id IS NULL THEN ARRAY[0::BIGINT] ELSE ARRAY[0::BIGINT, p_vendor_id] END) AS k
+    ON CONFLICT (vendor_id) DO UPDATE SET
+        asset_count    = t.asset_count + EXCLUDED.asset_count,
+        total_days     = t.total_days + EXCLUDED.total_days,
+        bucket_0_30    = t.bucket_0_30 + EXCLUDED.bucket_0_30,
+        bucket_31_60   = t.bucket_31_60 + EXCLUDED.bucket_31_60,
+        bucket_61_90   = t.bucket_61_90 + EXCLUDED.bucket_61_90,
+        bucket_over_90 = t.bucket_over_90 + EXCLUDED.bucket_over_90;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION asset_ageing_totals_trigger() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM adjust_ageing_totals(OLD.vendor_id, OLD.ageing_days, OLD.bucket, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM adjust_ageing_totals(NEW.vendor_id, NEW.ageing_days, NEW.bucket, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_asset_ageing_totals
+    AFTER INSERT OR UPDATE OR DELETE ON asset_ageing
+    FOR EACH ROW EXECUTE FUNCTION asset_ageing_totals_trigger();
+
+-- Recompute one ATM's ageing row; unchanged rows are left alone so the totals are not touched
+CREATE OR REPLACE FUNCTION sync_asset_ageing(p_atm_id BIGINT, p_vendor_id BIGINT, p_pickup DATE, p_delivery DATE)
+RETURNS VOID AS $$
+DECLARE
+    v_days INTEGER;
+BEGIN
+    IF p_pickup IS NULL THEN
+        DELETE FROM asset_ageing WHERE atm_id = p_atm_id;
+        RETURN;
+    END IF;
+
+    v_days := GREATEST(0, COALESCE(p_delivery, CURRENT_DATE) - p_pickup);
+
+    INSERT INTO asset_ageing AS g (atm_id, vendor_id, ageing_days, bucket, delivered, computed_on)
+    VALUES (p_atm_id, p_vendor_id, v_days, ageing_bucket(v_days), p_delivery IS NOT NULL, CURRENT_DATE)
+    ON CONFLICT (atm_id) DO UPDATE SET
+        vendor_id   = EXCLUDED.vendor_id,
+        ageing_days = EXCLUDED.ageing_days,
+        bucket      = EXCLUDED.bucket,
+        delivered   = EXCLUDED.delivered,
+        computed_on = EXCLUDED.computed_on
+    WHERE (g.vendor_id, g.ageing_days, g.delivered) IS DISTINCT FROM
+          (EXCLUDED.vendor_id, EXCLUDED.ageing_days, EXCLUDED.delivered);
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION atms_ageing_trigger() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM sync_asset_ageing(NEW.id, NEW.vendor_id, NEW.pickup_date, NEW.delivery_date);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_atms_ageing
+    AFTER INSERT OR UPDATE OF pickup_date, delivery_date, vendor_id ON atms
+    FOR EACH ROW EXECUTE FUNCTION atms_ageing_trigger();
+
+-- Backfill; the totals trigger fills asset_ageing_totals as rows go in
+SELECT sync_asset_ageing(id, vendor_id, pickup_date, delivery_date) FROM atms;
@@ -0,0 +1,74 @@
+-- Numeric form of the free-text amount_received (kept up to date by Atm.deriveAmountReceivedValue on writes):
+-- "Not received" -> 0, "Received" -> final_amount, a plain number -> that amount, anything else -> NULL
+ALTER TABLE atms ADD COLUMN IF NOT EXISTS amount_received_value NUMERIC(15, 2);
+
+UPDATE atms
+SET amount_received_value = CASE
+    WHEN lower(amount_received) LIKE '%not%' THEN 0
+    WHEN lower(btrim(amount_received)) LIKE 'received%' THEN final_amount
+    WHEN regexp_replace(amount_received, '[^0-9.-]', '', 'g') ~ '^-?[0-9]+(\.[0-9]+)?$'
+        THEN regexp_replace(amount_received, '[^0-9.-]', '', 'g')::NUMERIC
+END
+WHERE amount_received IS NOT NULL AND btrim(amount_received) <> '';
+
+-- Running receivables sums per (vendor, billing month), maintained by a trigger on atms.
+-- vendor_id 0 collects ATMs without a vendor; billing_month 'N/A' those without a billing month.
+-- ATMs with no recorded amount received count as fully outstanding.
+CREATE TABLE receivables_totals (
+    vendor_id      BIGINT         NOT NULL,
+    billing_month  VARCHAR(255)   NOT NULL,
+    asset_count    BIGINT         NOT NULL DEFAULT 0,
+    total_final    NUMERIC(17, 2) NOT NULL DEFAULT 0,
+    total_received NUMERIC(17, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (vendor_id, billing_month)
+);
+
+-- Add (p_sign = 1) or remove (p_sign = -1) one ATM's amounts from its receivables row
+CREATE OR REPLACE FUNCTION adjust_receivables_totals(p_vendor_id BIGINT, p_billing_month VARCHAR,
+                                                     p_final NUMERIC, p_received NUMERIC, p_sign INTEGER)
+RETURNS VOID AS $$
+BEGIN
+    INSERT INTO receivables_totals AS t (vendor_id, billing_month, asset_count, total_final, total_received)
+    VALUES (COALESCE(p_vendor_id, 0),
+            COALESCE(NULLIF(btrim(p_billing_month), ''), 'N/A'),
+            p_sign,
+            p_sign * COALESCE(p_final, 0),
+            p_sign * COALESCE(p_received, 0))
+    ON CONFLICT (vendor_id, billing_month) DO UPDATE SET
+        asset_count    = t.asset_count + EXCLUDED.asset_count,
+        total_final    = t.total_final + EXCLUDED.total_final,
+        total_received = t.total_received + EXCLUDED.total_received;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION atms_receivables_trigger() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+       AND (OLD.vendor_id, OLD.billing_month, OLD.final_amount, OLD.amount_received_value)
+           IS NOT DISTINCT FROM (NEW.vendor_id, NEW.billing_month, NEW.final_amount, NEW.amount_received_value) THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM adjust_receivables_totals(OLD.vendor_id, OLD.billing_month, OLD.final_amount,
+                                          OLD.amount_received_value, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM adjust_receivables_totals(NEW.vendor_id, NEW.billing_month, NEW.final_amount,
+                                          NEW.amount_received_value, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+INSERT INTO receivables_totals (vendor_id, billing_month, asset_count, total_final, total_received)
+SELECT COALESCE(vendor_id, 0),
+       COALESCE(NULLIF(btrim(billing_month), ''), 'N/A'),
+       count(*),
+       COALESCE(sum(final_amount), 0),
+       COALESCE(sum(amount_received_value), 0)
+FROM atms
+GROUP BY 1, 2;
+
+CREATE TRIGGER trg_atms_receivables
+    AFTER INSERT OR UPDATE OR DELETE ON atms
+    FOR EACH ROW EXECUTE FUNCTION atms_receivables_trigger();
@@ -0,0 +1,3 @@
+-- Top-N vendors by stored allocation (ORDER BY assets_allocated DESC, id LIMIT n) and live per-vendor ATM counts
+CREATE INDEX IF NOT EXISTS idx_vendors_assets_allocated ON vendors (assets_allocated DESC, id);
+CREATE INDEX IF NOT EXISTS idx_atms_vendor_id ON atms (vendor_id);
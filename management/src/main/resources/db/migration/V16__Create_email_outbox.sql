@@ -0,0 +1,22 @@
+-- Outbound mail is written here by the API and sent by MailOutboxDispatcher in the background.
+-- Rows are claimed with FOR UPDATE SKIP LOCKED, so several dispatcher threads or instances never send one twice.
+-- A SENDING row whose claim is older than the claim timeout (dispatcher died mid-send) is picked up again.
+CREATE TABLE email_outbox (
+    id              BIGSERIAL     PRIMARY KEY,
+    batch_id        UUID          NOT NULL,
+    recipient       VARCHAR(320)  NOT NULL,
+    subject         VARCHAR(998)  NOT NULL,
+    body            TEXT          NOT NULL,
+    status          VARCHAR(16)   NOT NULL
+        CONSTRAINT email_outbox_status_check CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED')),
+    attempts        INTEGER       NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6)  NOT NULL,
+    claimed_at      TIMESTAMP(6),
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP(6)  NOT NULL,
+    sent_at         TIMESTAMP(6)
+);
+
+CREATE INDEX idx_email_outbox_due ON email_outbox (next_attempt_at, id) WHERE status = 'PENDING';
+CREATE INDEX idx_email_outbox_sending ON email_outbox (claimed_at) WHERE status = 'SENDING';
+CREATE INDEX idx_email_outbox_batch ON email_outbox (batch_id);
@@ -0,0 +1,8 @@
+-- DEFERRED: claimed but held back by the send rate limits; it is due again at next_attempt_at without having
+-- used up an attempt. Deferred rows are claimed like PENDING ones, so the due index covers both.
+ALTER TABLE email_outbox DROP CONSTRAINT email_outbox_status_check;
+ALTER TABLE email_outbox ADD CONSTRAINT email_outbox_status_check
+    CHECK (status IN ('PENDING', 'DEFERRED', 'SENDING', 'SENT', 'FAILED'));
+
+DROP INDEX idx_email_outbox_due;
+CREATE INDEX idx_email_outbox_due ON email_outbox (next_attempt_at, id) WHERE status IN ('PENDING', 'DEFERRED');
@@ -0,0 +1,32 @@
+-- Template a queued message was rendered from (NULL for free-text mail), carried through to email_log.
+ALTER TABLE email_outbox ADD COLUMN template VARCHAR(64);
+
+-- Append-only record of every delivery attempt made by MailOutboxDispatcher, written in one batch per dispatch
+-- cycle. SENT and FAILED are final; RETRY means the attempt failed and the message went back to the outbox.
+-- History is read newest first by keyset on id.
+CREATE TABLE email_log (
+    id         BIGSERIAL     PRIMARY KEY,
+    outbox_id  BIGINT        NOT NULL,
+    batch_id   UUID          NOT NULL,
+    recipient  VARCHAR(320)  NOT NULL,
+    subject    VARCHAR(998)  NOT NULL,
+    template   VARCHAR(64),
+    status     VARCHAR(16)   NOT NULL
+        CONSTRAINT email_log_status_check CHECK (status IN ('SENT', 'RETRY', 'FAILED')),
+    attempt    INTEGER       NOT NULL,
+    error      VARCHAR(1000),
+    logged_at  TIMESTAMP(6)  NOT NULL
+);
+
+CREATE INDEX idx_email_log_recipient ON email_log (recipient, id);
+CREATE INDEX idx_email_log_batch ON email_log (batch_id);
+
+-- Rolling per-day, per-template counts, upserted together with each email_log batch ('' = no template).
+CREATE TABLE email_stats_daily (
+    day      DATE         NOT NULL,
+    template VARCHAR(64)  NOT NULL,
+    sent     BIGINT       NOT NULL DEFAULT 0,
+    failed   BIGINT       NOT NULL DEFAULT 0,
+    retried  BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, template)
+);
@@ -0,0 +1,3 @@
+-- Optional single attachment per message (vendor digest XLSX), stored with the message so it survives restarts.
+ALTER TABLE email_outbox ADD COLUMN attachment_name VARCHAR(255);
+ALTER TABLE email_outbox ADD COLUMN attachment BYTEA;
@@ -0,0 +1,14 @@
+-- Vendor.name is the natural id (looked up by NaturalIdRepository and cached by name), so it must be unique.
+-- Until now only Hibernate's ddl-auto created that constraint (as uk_<hash>); add it here when it is missing.
+-- Fails on existing duplicate names, which have to be merged by hand first.
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+        WHERE c.conrelid = 'vendors'::regclass AND c.contype = 'u'
+          AND array_length(c.conkey, 1) = 1 AND a.attname = 'name'
+    ) THEN
+        ALTER TABLE vendors ADD CONSTRAINT uk_vendors_name UNIQUE (name);
+    END IF;
+END $$;
@@ -0,0 +1,40 @@
+-- Months whose movement partition was detached for archiving (MovementPartitionService.detachPartition).
+-- Without this, a back-dated movement for such a month lands in movements_default and, once the detached table
+-- is dropped, partition maintenance would silently re-create and re-attach the month with just that row.
+-- Inserts into an archived month are rejected instead; delete the month's row here to accept them again
+-- (e.g. after restoring and re-attaching the archived table).
+CREATE TABLE movement_archived_months (
+    month          DATE         PRIMARY KEY,
+    partition_name VARCHAR(63)  NOT NULL,
+    detached_at    TIMESTAMP(6) NOT NULL
+);
+
+-- Partitions detached before this migration and not dropped yet
+INSERT INTO movement_archived_months (month, partition_name, detached_at)
+SELECT to_date(substr(c.relname, 12, 4) || substr(c.relname, 17, 2), 'YYYYMM'), c.relname, now()
+FROM pg_class c
+WHERE c.relkind = 'r' AND c.relnamespace = current_schema()::regnamespace
+  AND c.relname ~ '^movements_y[0-9]{4}m[0-9]{2}$'
+  AND NOT EXISTS (SELECT 1 FROM pg_inherits i WHERE i.inhrelid = c.oid);
+
+-- Rows for an archived month have no partition, so they can only arrive through the default partition
+-- (inserts, and updates moving a row into that month)
+CREATE OR REPLACE FUNCTION reject_archived_movement() RETURNS TRIGGER AS $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM movement_archived_months
+               WHERE month = date_trunc('month', NEW.initiated_date)::DATE) THEN
+        RAISE EXCEPTION 'Movements for % are archived; the month''s partition was detached',
+            to_char(NEW.initiated_date, 'YYYY-MM') USING ERRCODE = 'check_violation';
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_movements_default_archived_month
+    BEFORE INSERT ON movements_default
+    FOR EACH ROW EXECUTE FUNCTION reject_archived_movement();
+
+-- The primary key is (id, initiated_date) because a partitioned table's unique keys must include the partition
+-- key, so the database no longer enforces that id alone is unique. Ids only come from movements_id_seq;
+-- never insert an explicit id.
+COMMENT ON COLUMN movements.id IS 'Unique by convention only (always from movements_id_seq); the primary key is (id, initiated_date)';
@@ -0,0 +1,28 @@
+-- Full-text search vectors for /api/search
+-- Stored generated columns are recomputed by PostgreSQL on every INSERT/UPDATE, so the
+-- search index never drifts from the source rows. Weight A = identifiers, B = places/names, C = free text.
+
+ALTER TABLE atms ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(serial_number, '') || ' ' || coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(location, '') || ' ' || coalesce(branch, '')), 'B')
+) STORED;
+CREATE INDEX IF NOT EXISTS idx_atms_search_vector ON atms USING GIN (search_vector);
+
+ALTER TABLE movements ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(docket_no, '') || ' ' || coalesce(tracking_number, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(from_location, '') || ' ' || coalesce(to_location, '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(business_group, '')), 'C')
+) STORED;
+CREATE INDEX IF NOT EXISTS idx_movements_search_vector ON movements USING GIN (search_vector);
+
+ALTER TABLE vendors ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(email, '') || ' ' || coalesce(contact_person, '')), 'B')
+) STORED;
+CREATE INDEX IF NOT EXISTS idx_vendors_search_vector ON vendors USING GIN (search_vector);
+
+ALTER TABLE notices ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'C')
+) STORED;
+CREATE INDEX IF NOT EXISTS idx_notices_search_vector ON notices USING GIN (search_vector);
@@ -0,0 +1,96 @@
+-- Convert movements into a table range-partitioned by initiated_date, one partition per month.
+-- Rows outside any monthly partition land in movements_default until ensure_movement_partition()
+-- carves their month out. Primary key and tracking-number uniqueness must include the partition key.
+
+ALTER TABLE movements RENAME TO movements_legacy;
+
+CREATE SEQUENCE movements_id_seq_partitioned;
+SELECT setval('movements_id_seq_partitioned', COALESCE((SELECT MAX(id) FROM movements_legacy), 0) + 1, false);
+
+CREATE TABLE movements (
+    id                BIGINT       NOT NULL DEFAULT nextval('movements_id_seq_partitioned'),
+    actual_delivery   DATE,
+    business_group    VARCHAR(255),
+    created_at        TIMESTAMP(6) NOT NULL,
+    docket_no         VARCHAR(255),
+    expected_delivery DATE,
+    from_location     VARCHAR(255) NOT NULL,
+    initiated_by      VARCHAR(255) NOT NULL,
+    initiated_date    DATE         NOT NULL,
+    mode_of_bill      VARCHAR(255),
+    movement_type     VARCHAR(255) NOT NULL,
+    notes             VARCHAR(1000),
+    status            VARCHAR(255) NOT NULL
+        CONSTRAINT movements_status_check CHECK (status IN ('PENDING', 'IN_TRANSIT', 'DELIVERED', 'CANCELLED')),
+    to_location       VARCHAR(255) NOT NULL,
+    tracking_number   VARCHAR(255),
+    updated_at        TIMESTAMP(6),
+    atm_id            BIGINT       NOT NULL,
+    uploaded_file_id  BIGINT,
+    search_vector     TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(docket_no, '') || ' ' || coalesce(tracking_number, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(from_location, '') || ' ' || coalesce(to_location, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(business_group, '')), 'C')
+    ) STORED
+) PARTITION BY RANGE (initiated_date);
+
+CREATE TABLE movements_default PARTITION OF movements DEFAULT;
+
+-- Creates the monthly partition holding p_date (movements_yYYYYmMM) if it does not exist yet.
+-- Rows for that month already sitting in the default partition are moved into the new partition.
+CREATE OR REPLACE FUNCTION ensure_movement_partition(p_date DATE) RETURNS TEXT AS $$
+DECLARE
+    v_start   DATE := date_trunc('month', p_date)::DATE;
+    v_end     DATE := (date_trunc('month', p_date) + INTERVAL '1 month')::DATE;
+    v_name    TEXT := 'movements_y' || to_char(p_date, 'YYYY') || 'm' || to_char(p_date, 'MM');
+    v_columns TEXT;
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN v_name;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM movements_default WHERE initiated_date >= v_start AND initiated_date < v_end) THEN
+        SELECT string_agg(quote_ident(attname), ', ' ORDER BY attnum) INTO v_columns
+        FROM pg_attribute
+        WHERE attrelid = 'movements'::regclass AND attnum > 0 AND NOT attisdropped AND attgenerated = '';
+
+        EXECUTE format('CREATE TABLE %I (LIKE movements INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING GENERATED)', v_name);
+        EXECUTE format('WITH moved AS (DELETE FROM movements_default WHERE initiated_date >= %L AND initiated_date < %L RETURNING *) '
+                       'INSERT INTO %I (%s) SELECT %s FROM moved', v_start, v_end, v_name, v_columns, v_columns);
+        EXECUTE format('ALTER TABLE movements ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', v_name, v_start, v_end);
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF movements FOR VALUES FROM (%L) TO (%L)', v_name, v_start, v_end);
+    END IF;
+
+    RETURN v_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- One partition per month already in use, plus the current and next three months
+SELECT ensure_movement_partition(month::DATE)
+FROM (
+    SELECT DISTINCT date_trunc('month', initiated_date) AS month FROM movements_legacy
+    UNION
+    SELECT generate_series(date_trunc('month', CURRENT_DATE), date_trunc('month', CURRENT_DATE) + INTERVAL '3 months', INTERVAL '1 month')
+) months;
+
+INSERT INTO movements (id, actual_delivery, business_group, created_at, docket_no, expected_delivery, from_location,
+                       initiated_by, initiated_date, mode_of_bill, movement_type, notes, status, to_location,
+                       tracking_number, updated_at, atm_id, uploaded_file_id)
+SELECT id, actual_delivery, business_group, created_at, docket_no, expected_delivery, from_location,
+       initiated_by, initiated_date, mode_of_bill, movement_type, notes, status, to_location,
+       tracking_number, updated_at, atm_id, uploaded_file_id
+FROM movements_legacy;
+
+DROP TABLE movements_legacy;
+ALTER SEQUENCE movements_id_seq_partitioned RENAME TO movements_id_seq;
+ALTER SEQUENCE movements_id_seq OWNED BY movements.id;
+
+ALTER TABLE movements ADD CONSTRAINT movements_pkey PRIMARY KEY (id, initiated_date);
+ALTER TABLE movements ADD CONSTRAINT uk_movements_tracking_number UNIQUE (tracking_number, initiated_date);
+ALTER TABLE movements ADD CONSTRAINT fk_movements_atm FOREIGN KEY (atm_id) REFERENCES atms (id);
+ALTER TABLE movements ADD CONSTRAINT fk_movements_uploaded_file FOREIGN KEY (uploaded_file_id) REFERENCES uploaded_files (id);
+
+CREATE INDEX idx_movements_atm_id ON movements (atm_id);
+CREATE INDEX idx_movements_uploaded_file_id ON movements (uploaded_file_id);
+CREATE INDEX idx_movements_search_vector ON movements USING GIN (search_vector);
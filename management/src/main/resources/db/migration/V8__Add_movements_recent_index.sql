@@ -0,0 +1,3 @@
+-- Backs MovementRepository.findRecentMovements: newest-first top-N reads walk this index
+-- (partition by partition, newest month first) and stop after LIMIT rows.
+CREATE INDEX IF NOT EXISTS idx_movements_initiated_date_id ON movements (initiated_date DESC, id DESC);
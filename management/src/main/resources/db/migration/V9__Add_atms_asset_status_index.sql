@@ -0,0 +1,2 @@
+-- Lets the grouped asset status count (AtmRepository.countGroupedByAssetStatus) run as an index-only scan
+CREATE INDEX IF NOT EXISTS idx_atms_asset_status ON atms (asset_status);
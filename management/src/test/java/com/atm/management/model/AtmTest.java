@@ -0,0 +1,66 @@
+package com.atm.management.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The derived columns must match the SQL backfills exactly; the cases mirror the CASE in
+ * V14__Add_receivables_totals.sql and the expression in V10__Add_city_to_atms.sql.
+ */
+class AtmTest {
+
+    private static final BigDecimal FINAL_AMOUNT = new BigDecimal("25000.00");
+
+    @ParameterizedTest(name = "\"{0}\" -> {1}")
+    @CsvSource(delimiter = '|', value = {
+            // lower(amount_received) LIKE '%not%' -> 0
+            "Not received      | 0",
+            "NOT RECEIVED      | 0",
+            "payment not done  | 0",
+            "received, not all | 0",
+            // lower(btrim(amount_received)) LIKE 'received%' -> final_amount
+            "Received          | 25000.00",
+            "'  received in full ' | 25000.00",
+            // digits, '.' and '-' left after stripping form a number -> that number, otherwise NULL
+            "12500             | 12500",
+            "12,500.00         | 12500.00",
+            "-150.5            | -150.5",
+            "Rs. 8,000         |",
+            "INR 4500/-        |",
+            "pending           |",
+            "1.2.3             |",
+    })
+    void derivesAmountReceivedLikeTheV14Backfill(String amountReceived, String expected) {
+        BigDecimal value = Atm.deriveAmountReceivedValue(amountReceived, FINAL_AMOUNT);
+        if (expected == null) {
+            assertNull(value);
+        } else {
+            assertEquals(0, new BigDecimal(expected).compareTo(value), "was " + value);
+        }
+    }
+
+    @Test
+    void amountReceivedIsNullWhenNotRecorded() {
+        assertNull(Atm.deriveAmountReceivedValue(null, FINAL_AMOUNT));
+        assertNull(Atm.deriveAmountReceivedValue("   ", FINAL_AMOUNT));
+    }
+
+    @Test
+    void receivedWithoutFinalAmountIsNull() {
+        assertNull(Atm.deriveAmountReceivedValue("Received", null));
+    }
+
+    @Test
+    void cityIsTheLastCommaSeparatedPart() {
+        assertEquals("Mumbai", Atm.deriveCity("Shop 5, Bhandup West, Mumbai"));
+        assertEquals("Pune", Atm.deriveCity("Pune"));
+        assertNull(Atm.deriveCity("Near station, "));
+        assertNull(Atm.deriveCity(null));
+    }
+}
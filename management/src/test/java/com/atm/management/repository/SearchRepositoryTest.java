@@ -0,0 +1,63 @@
+package com.atm.management.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Query tokenisation must agree with how search_vector is built, so it is checked against PostgreSQL itself.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SearchRepositoryTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest(name = "\"{0}\" -> {1}")
+    @CsvSource(delimiter = '|', quoteCharacter = '"', value = {
+            "DKT/2024/001          | 'dkt/2024/001':*",
+            "riyaz@logistics.com   | 'riyaz@logistics.com':*",
+            "TRK-4F2A              | '4f2a':* & 'trk':* & 'trk-4f2a':*",
+            "Bhandup, Mumbai.      | 'bhandup':* & 'mumbai':*",
+            "o'brien & !x:* (y)    | 'brien':* & 'o':* & 'x':* & 'y':*",
+    })
+    void keepsTokensWholeLikeTheIndex(String text, String expected) {
+        assertEquals(expected, prefixQuery(text));
+    }
+
+    @ParameterizedTest(name = "\"{1}\" in \"{0}\" -> {2}")
+    @CsvSource(delimiter = '|', quoteCharacter = '"', value = {
+            "Docket DKT/2024/001 to Pune     | DKT/2024/001        | true",
+            "Docket DKT/2024/001 to Pune     | dkt/2024/0          | true",
+            "Docket DKT/2024/001 to Pune     | DKT/2024/002        | false",
+            "Riyaz Logistics riyaz@logistics.com | riyaz@logistics.com | true",
+            "Riyaz Logistics riyaz@logistics.com | riyaz@logistics.co | true",
+            "Riyaz Logistics riyaz@logistics.com | riyaz@logistics.org | false",
+            "TRK-4F2A Andheri, Mumbai        | trk-4f mum          | true",
+            "TRK-4F2A Andheri, Mumbai        | 4f2a                | true",
+            "TRK-4F2A Andheri, Mumbai        | Pune                | false",
+    })
+    void matchesTheDocumentVector(String document, String text, boolean expected) {
+        Boolean matches = jdbcTemplate.queryForObject(
+                "SELECT coalesce(to_tsvector('simple', ?) @@ " + SearchRepository.PREFIX_QUERY + ", false)",
+                Boolean.class, document, text);
+        assertEquals(expected, matches);
+    }
+
+    @Test
+    void textWithoutLexemesMatchesNothing() {
+        assertNull(prefixQuery("-- / !!"));
+    }
+
+    private String prefixQuery(String text) {
+        return jdbcTemplate.queryForObject("SELECT " + SearchRepository.PREFIX_QUERY + "::text", String.class, text);
+    }
+}
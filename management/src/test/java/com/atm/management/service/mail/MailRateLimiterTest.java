@@ -0,0 +1,83 @@
+package com.atm.management.service.mail;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MailRateLimiterTest {
+
+    private static final double NO_REFILL = 0.0001;
+    // Time passing between two reservations shortens the second one's offset; intervals are much larger than this
+    private static final long SLACK_MILLIS = 100;
+
+    @Test
+    void limitsEachDomainOnItsOwn() {
+        MailRateLimiter limiter = new MailRateLimiter(1000, 1000, NO_REFILL, 2, "");
+
+        assertEquals(0, limiter.tryAcquire("a@one.com"));
+        assertEquals(0, limiter.tryAcquire("b@one.com"));
+        assertTrue(limiter.tryAcquire("c@one.com") > 0);
+        assertEquals(0, limiter.tryAcquire("a@two.com"));
+    }
+
+    @Test
+    void releasesTheDomainTokenWhenTheGlobalLimitDenies() throws InterruptedException {
+        MailRateLimiter limiter = new MailRateLimiter(1000, 1, NO_REFILL, 1, "");
+
+        assertEquals(0, limiter.tryAcquire("a@one.com"));
+        // Global bucket is empty: two.com's only token must be handed back
+        assertTrue(limiter.tryAcquire("a@two.com") > 0);
+
+        Thread.sleep(20);
+
+        assertEquals(0, limiter.tryAcquire("b@two.com"));
+    }
+
+    @Test
+    void spacesDeferralsOneDomainIntervalApart() {
+        // 2/s -> one slot every 500 ms
+        MailRateLimiter limiter = new MailRateLimiter(1000, 1000, 2, 1, "");
+
+        assertSlot(0, limiter.reserveDeferral("a@one.com", 0));
+        assertSlot(500, limiter.reserveDeferral("b@one.com", 0));
+        assertSlot(1000, limiter.reserveDeferral("c@one.com", 0));
+        assertSlot(0, limiter.reserveDeferral("a@two.com", 0));
+    }
+
+    @Test
+    void deferralIsNeverSoonerThanTheRequestedWait() {
+        MailRateLimiter limiter = new MailRateLimiter(1000, 1000, 2, 1, "");
+
+        assertSlot(0, limiter.reserveDeferral("a@one.com", 0));
+        assertSlot(3000, limiter.reserveDeferral("b@one.com", 3000));
+        assertSlot(3500, limiter.reserveDeferral("c@one.com", 0));
+    }
+
+    @Test
+    void overridesChangeTheDomainInterval() {
+        MailRateLimiter limiter = new MailRateLimiter(1000, 1000, 2, 1, "fast.com:4, Slow.com:0.5");
+
+        assertSlot(0, limiter.reserveDeferral("a@fast.com", 0));
+        assertSlot(250, limiter.reserveDeferral("b@FAST.com", 0));
+        assertSlot(0, limiter.reserveDeferral("a@slow.com", 0));
+        assertSlot(2000, limiter.reserveDeferral("b@slow.com", 0));
+    }
+
+    @Test
+    void domainIsTheLowerCasedPartAfterTheLastAt() {
+        assertEquals("example.com", MailRateLimiter.domainOf("\"a@b\"@Example.COM "));
+        assertEquals("localhost", MailRateLimiter.domainOf("localhost"));
+    }
+
+    @Test
+    void rejectsMalformedOverrides() {
+        assertThrows(IllegalArgumentException.class, () -> new MailRateLimiter(20, 40, 5, 10, "gmail.com"));
+    }
+
+    private static void assertSlot(long expectedMillis, long actualMillis) {
+        assertTrue(actualMillis >= expectedMillis - SLACK_MILLIS && actualMillis <= expectedMillis,
+                "expected a slot about " + expectedMillis + " ms out, was " + actualMillis);
+    }
+}
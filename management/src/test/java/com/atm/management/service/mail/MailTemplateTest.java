@@ -0,0 +1,74 @@
+package com.atm.management.service.mail;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MailTemplateTest {
+
+    @Test
+    void rendersSubjectAndBody() {
+        MailTemplate template = MailTemplate.compile("notice",
+                "Subject: ATM {{ atmId }} moved\n\nHello {{name}},\nATM {{atmId}} is now at {{location}}.\n");
+
+        Map<String, Object> values = Map.of("atmId", "BNA-7", "name", "Asha", "location", "Pune");
+        assertEquals("ATM BNA-7 moved", template.renderSubject(values));
+        assertEquals("Hello Asha,\nATM BNA-7 is now at Pune.\n", template.renderBody(values));
+        assertEquals(List.of("atmId", "name", "location"), List.copyOf(template.getVariables()));
+    }
+
+    @Test
+    void missingAndNullValuesRenderEmpty() {
+        MailTemplate template = MailTemplate.compile("notice", "Subject: Hi {{name}}\n\n[{{missing}}][{{empty}}]");
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("empty", null);
+        assertEquals("Hi", template.renderSubject(values).trim());
+        assertEquals("[][]", template.renderBody(values));
+    }
+
+    @Test
+    void acceptsCrlfLineEndings() {
+        MailTemplate template = MailTemplate.compile("notice", "Subject: Hi {{name}}\r\n\r\nLine one\r\nLine {{n}}\r\n");
+
+        Map<String, Object> values = Map.of("name", "Asha", "n", 2);
+        assertEquals("Hi Asha", template.renderSubject(values));
+        assertEquals("Line one\nLine 2\n", template.renderBody(values));
+        assertTrue(template.getSource().indexOf('\r') < 0);
+    }
+
+    @Test
+    void subjectOnlyTemplateHasAnEmptyBody() {
+        MailTemplate template = MailTemplate.compile("ping", "Subject: Ping");
+
+        assertEquals("Ping", template.renderSubject(Map.of()));
+        assertEquals("", template.renderBody(Map.of()));
+    }
+
+    @Test
+    void rejectsMissingSubjectLine() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> MailTemplate.compile("broken", "Hello {{name}}\n\nBody"));
+        assertTrue(e.getMessage().contains("broken"));
+    }
+
+    @Test
+    void rejectsUnclosedVariable() {
+        assertThrows(IllegalArgumentException.class,
+                () -> MailTemplate.compile("broken", "Subject: Hi\n\nHello {{name,\n"));
+        assertThrows(IllegalArgumentException.class,
+                () -> MailTemplate.compile("broken", "Subject: Hi {{name\n\nBody"));
+    }
+
+    @Test
+    void rejectsEmptyVariable() {
+        assertThrows(IllegalArgumentException.class,
+                () -> MailTemplate.compile("broken", "Subject: Hi\n\nHello {{  }}"));
+    }
+}
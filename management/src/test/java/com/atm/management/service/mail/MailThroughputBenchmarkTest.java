@@ -0,0 +1,105 @@
+package com.atm.management.service.mail;
+
+import com.atm.management.service.MailingService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the bulk mail path (MailingService -> outbox -> dispatcher -> SMTP) against the in-process sink and
+ * reports throughput, p99 queue-to-delivery latency and peak heap. Excluded from the normal build; run with
+ * {@code mvn test -Pbenchmark}. Uses its own throwaway schema (application-benchmark.properties).
+ */
+@Slf4j
+@Tag("benchmark")
+@ActiveProfiles({"local", "benchmark"})
+@SpringBootTest(properties = {
+        "app.mail.sink.port=2526",
+        "app.mail.outbox.poll-interval-ms=50",
+        "app.mail.rate.global-per-second=1000000",
+        "app.mail.rate.global-burst=1000000",
+        "app.mail.rate.domain-per-second=1000000",
+        "app.mail.rate.domain-burst=1000000"
+})
+class MailThroughputBenchmarkTest {
+
+    @Autowired
+    private MailingService mailingService;
+
+    @Autowired
+    private LocalSmtpSink smtpSink;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest(name = "{0} messages")
+    @ValueSource(ints = {1_000, 10_000})
+    void bulkSendThroughput(int count) throws InterruptedException {
+        List<String> recipients = IntStream.range(0, count).mapToObj(i -> "user" + i + "@bench.local").toList();
+        long receivedBefore = smtpSink.getMessageCount();
+        long connectionsBefore = smtpSink.getConnectionCount();
+        resetHeapPeaks();
+
+        long start = System.nanoTime();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> result = (Map<String, Object>) mailingService.sendBulkEmails(
+                recipients, "Benchmark", "Throughput benchmark message body.");
+        UUID batchId = (UUID) result.get("batchId");
+        assertTrue(smtpSink.awaitMessages(receivedBefore + count, 5, TimeUnit.MINUTES), "Timed out waiting for delivery");
+        awaitBatchComplete(batchId);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, Object> status = mailingService.getBatchStatus(batchId);
+        assertEquals((long) count, status.get("sent"));
+
+        Double p99Millis = jdbcTemplate.queryForObject(
+                "SELECT percentile_cont(0.99) WITHIN GROUP (ORDER BY extract(epoch FROM sent_at - created_at) * 1000) " +
+                "FROM email_outbox WHERE batch_id = ?",
+                Double.class, batchId);
+
+        log.info(String.format("Mail benchmark: %,d messages in %.2f s: %,.0f msg/s, p99 queue-to-delivery %.0f ms, " +
+                        "%d SMTP connections, peak heap %.1f MB",
+                count, seconds, count / seconds, p99Millis, smtpSink.getConnectionCount() - connectionsBefore,
+                peakHeapBytes() / (1024.0 * 1024.0)));
+    }
+
+    private void awaitBatchComplete(UUID batchId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (!Boolean.TRUE.equals(mailingService.getBatchStatus(batchId).get("complete"))) {
+            assertTrue(System.nanoTime() < deadline, "Batch did not complete");
+            Thread.sleep(20);
+        }
+    }
+
+    private static void resetHeapPeaks() {
+        System.gc();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    private static long peakHeapBytes() {
+        return heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+    }
+}
@@ -0,0 +1,66 @@
+package com.atm.management.service.mail;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    // Slow enough that no token is refilled while a test runs
+    private static final double NO_REFILL = 0.0001;
+
+    @Test
+    void startsFullAndAllowsTheBurst() {
+        TokenBucket bucket = new TokenBucket(NO_REFILL, 3);
+
+        assertEquals(3, bucket.available());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+        assertEquals(0, bucket.available());
+    }
+
+    @Test
+    void releaseReturnsATokenButNeverExceedsCapacity() {
+        TokenBucket bucket = new TokenBucket(NO_REFILL, 2);
+
+        assertTrue(bucket.tryAcquire());
+        bucket.release();
+        assertEquals(2, bucket.available());
+
+        bucket.release();
+        assertEquals(2, bucket.available());
+    }
+
+    @Test
+    void reportsTheWaitForMissingTokens() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+
+        assertEquals(0, bucket.millisUntilAvailable(1));
+        assertTrue(bucket.tryAcquire());
+
+        long wait = bucket.millisUntilAvailable(1);
+        assertTrue(wait > 0 && wait <= 100, "one token at 10/s is at most 100 ms away, was " + wait);
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 1);
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+
+        Thread.sleep(20);
+
+        assertTrue(bucket.tryAcquire());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0.5));
+    }
+}
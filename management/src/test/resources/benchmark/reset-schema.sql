@@ -0,0 +1,3 @@
+-- Recreated on every benchmark run, before Hibernate builds the entity tables into it
+DROP SCHEMA IF EXISTS mail_benchmark CASCADE;
+CREATE SCHEMA mail_benchmark;